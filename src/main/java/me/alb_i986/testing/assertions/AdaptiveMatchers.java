@@ -0,0 +1,164 @@
+package me.alb_i986.testing.assertions;
+
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Composite matchers which learn, across the attempts of a retry assertion, how to evaluate their children
+ * in the cheapest order, e.g.
+ * <pre>
+ * assertThat(orderSupplier, eventually(adaptiveAllOf(
+ *         samePropertyValuesAs(expectedOrder), // expensive deep comparison
+ *         hasProperty("status", is("SHIPPED")))), // cheap check, failing most of the times
+ *     configureRetry());
+ * </pre>
+ * Hamcrest's {@code allOf} evaluates its children in the declared order, every time.
+ * {@link #adaptiveAllOf(Matcher[])} rather measures how long each child takes to evaluate and how often it fails,
+ * and evaluates first the children which are cheap and likely to fail, so that the expensive ones are evaluated
+ * only when needed. The description, though, follows the declared order.
+ * <p>
+ * Since the same matcher instance must be reused across attempts in order to learn anything,
+ * these matchers are stateful. They are thread safe, as long as their children are.
+ */
+public class AdaptiveMatchers {
+
+    protected AdaptiveMatchers() {
+        // static class
+    }
+
+    /**
+     * Adaptive version of {@link org.hamcrest.Matchers#allOf(Matcher[])}.
+     */
+    @SafeVarargs
+    public static <T> Matcher<T> adaptiveAllOf(Matcher<? super T>... matchers) {
+        List<Matcher<? super T>> list = new ArrayList<>(matchers.length);
+        for (Matcher<? super T> matcher : matchers) { // rather than Arrays.asList, not to pass the varargs array on
+            list.add(matcher);
+        }
+        return adaptiveAllOf(list);
+    }
+
+    /**
+     * Adaptive version of {@link org.hamcrest.Matchers#allOf(Iterable)}.
+     */
+    public static <T> Matcher<T> adaptiveAllOf(Iterable<Matcher<? super T>> matchers) {
+        return new AdaptiveAllOf<>(matchers);
+    }
+
+    /**
+     * Evaluates its children in increasing order of expected cost per failure,
+     * i.e. the mean evaluation time divided by the mismatch rate.
+     * Both are estimated from the previous evaluations; the mismatch rate is smoothed,
+     * so that a child which has never failed yet is not considered to never fail.
+     * Children which have never been evaluated yet come first, so as to learn their cost.
+     */
+    static class AdaptiveAllOf<T> extends BaseMatcher<T> {
+
+        private final List<Matcher<? super T>> matchers = new ArrayList<>();
+        private final long[] totalNanos;
+        private final long[] evaluations;
+        private final long[] mismatches;
+        private Integer[] order;
+        private volatile int lastFailed = -1;
+
+        AdaptiveAllOf(Iterable<Matcher<? super T>> matchers) {
+            for (Matcher<? super T> matcher : matchers) {
+                this.matchers.add(matcher);
+            }
+            this.totalNanos = new long[this.matchers.size()];
+            this.evaluations = new long[this.matchers.size()];
+            this.mismatches = new long[this.matchers.size()];
+            this.order = new Integer[this.matchers.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+        }
+
+        @Override
+        public boolean matches(Object item) {
+            Integer[] order = evaluationOrder();
+            long[] nanos = new long[order.length];
+            int failed = -1;
+            for (int i : order) {
+                long start = System.nanoTime();
+                boolean matched = matchers.get(i).matches(item);
+                nanos[i] = System.nanoTime() - start;
+                if (!matched) {
+                    failed = i;
+                    break;
+                }
+            }
+            record(order, nanos, failed);
+            lastFailed = failed;
+            return failed == -1;
+        }
+
+        /**
+         * @return the indexes of the children, in the order in which they are to be evaluated
+         */
+        synchronized Integer[] evaluationOrder() {
+            return order.clone();
+        }
+
+        private synchronized void record(Integer[] evaluated, long[] nanos, int failed) {
+            for (int i : evaluated) {
+                totalNanos[i] += nanos[i];
+                evaluations[i]++;
+                if (i == failed) {
+                    mismatches[i]++;
+                    break;
+                }
+            }
+            final double[] costPerFailure = new double[order.length];
+            for (int i = 0; i < costPerFailure.length; i++) {
+                double meanNanos = evaluations[i] == 0 ? 0 : (double) totalNanos[i] / evaluations[i];
+                double mismatchRate = (mismatches[i] + 1.0) / (evaluations[i] + 2.0);
+                costPerFailure[i] = meanNanos / mismatchRate;
+            }
+            Integer[] newOrder = order.clone();
+            Arrays.sort(newOrder, new Comparator<Integer>() { // stable: ties keep the previous order
+                @Override
+                public int compare(Integer a, Integer b) {
+                    return Double.compare(costPerFailure[a], costPerFailure[b]);
+                }
+            });
+            order = newOrder;
+        }
+
+        /**
+         * Describes the child which failed the last evaluation, if it still does not match;
+         * otherwise, the first child which does not match, in evaluation order,
+         * so that the expensive children are not evaluated any more than by {@link #matches(Object)}.
+         */
+        @Override
+        public void describeMismatch(Object item, Description mismatchDescription) {
+            int lastFailed = this.lastFailed;
+            if (lastFailed != -1 && !matchers.get(lastFailed).matches(item)) {
+                describeMismatch(matchers.get(lastFailed), item, mismatchDescription);
+                return;
+            }
+            for (int i : evaluationOrder()) {
+                if (i != lastFailed && !matchers.get(i).matches(item)) {
+                    describeMismatch(matchers.get(i), item, mismatchDescription);
+                    return;
+                }
+            }
+        }
+
+        private static void describeMismatch(Matcher<?> matcher, Object item, Description mismatchDescription) {
+            mismatchDescription.appendDescriptionOf(matcher).appendText(" ");
+            matcher.describeMismatch(item, mismatchDescription);
+        }
+
+        @Override
+        public void describeTo(Description description) {
+            description.appendList("(", " and ", ")", matchers);
+        }
+    }
+}
@@ -3,12 +3,28 @@ package me.alb_i986.testing.assertions;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 import org.hamcrest.core.Is;
+import org.reactivestreams.Publisher;
 
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import me.alb_i986.testing.assertions.retry.internal.AssertRetryEngine;
 import me.alb_i986.testing.assertions.retry.internal.RetryAssertionError;
 import me.alb_i986.testing.assertions.retry.internal.RetryConfig;
+import me.alb_i986.testing.assertions.retry.BulkSupplier;
+import me.alb_i986.testing.assertions.retry.DoublePredicate;
+import me.alb_i986.testing.assertions.retry.DoubleSupplier;
+import me.alb_i986.testing.assertions.retry.IntPredicate;
+import me.alb_i986.testing.assertions.retry.IntSupplier;
+import me.alb_i986.testing.assertions.retry.InvariantMonitor;
+import me.alb_i986.testing.assertions.retry.LatencyPercentiles;
+import me.alb_i986.testing.assertions.retry.LongPredicate;
+import me.alb_i986.testing.assertions.retry.LongSupplier;
+import me.alb_i986.testing.assertions.retry.NumericPredicates;
 import me.alb_i986.testing.assertions.retry.RetryConfigBuilder;
 import me.alb_i986.testing.assertions.retry.Supplier;
 
@@ -160,6 +176,466 @@ public class AssertRetry {
         }
     }
 
+    /**
+     * Handy overloaded version of {@link #assertListening(String, Collection, RetryConfigBuilder)},
+     * implicitly using an empty {@code failureExplanation}.
+     */
+    public static void assertListening(Collection<InetSocketAddress> endpoints, RetryConfigBuilder retryConfig) {
+        assertListening("", endpoints, retryConfig);
+    }
+
+    /**
+     * Verifies that all of the given TCP endpoints <i>eventually</i> accept connections,
+     * e.g. that the services needed by a test suite have started.
+     * <p>
+     * All of the endpoints are probed concurrently, from the calling thread, by means of non-blocking connects
+     * multiplexed by a single NIO selector. On each attempt, only the endpoints which have not accepted
+     * a connection yet are probed, each with a connect timeout of 1s, or less if the assertion is running out of time:
+     * see {@link #assertListening(String, Collection, long, TimeUnit, RetryConfigBuilder)} for a different one.
+     * The assertion passes as soon as all of the endpoints have accepted a connection,
+     * and it is retried according to the given configuration, as usual.
+     * <p>
+     * In case of failure, the message lists each endpoint which never accepted a connection,
+     * along with the last error, e.g.
+     * <pre>
+     * java.lang.AssertionError: Assertion failed after 10/10 attempts (19s):
+     *     Expected: all of the 3 endpoints accepting TCP connections
+     *     Endpoints not listening (last error):
+     *          - localhost/127.0.0.1:8081: java.net.ConnectException: Connection refused
+     * </pre>
+     *
+     * @throws AssertionError if some endpoints never accepted a connection
+     */
+    public static void assertListening(String failureExplanation, Collection<InetSocketAddress> endpoints,
+                                       RetryConfigBuilder retryConfig) {
+        try {
+            new AssertRetryEngine(retryConfig.build())
+                    .assertListening(failureExplanation, endpoints);
+        } catch (RetryAssertionError e) { // re-throw as a plain AssertionError
+            throw new AssertionError(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Same as {@link #assertListening(String, Collection, RetryConfigBuilder)},
+     * except each connect times out after the given time, or less if the assertion is running out of time.
+     *
+     * @throws IllegalArgumentException if the connect timeout is not positive
+     * @throws AssertionError if some endpoints never accepted a connection
+     */
+    public static void assertListening(String failureExplanation, Collection<InetSocketAddress> endpoints,
+                                       long connectTimeout, TimeUnit connectTimeoutUnit, RetryConfigBuilder retryConfig) {
+        try {
+            new AssertRetryEngine(retryConfig.build())
+                    .assertListening(failureExplanation, endpoints, connectTimeout, connectTimeoutUnit);
+        } catch (RetryAssertionError e) { // re-throw as a plain AssertionError
+            throw new AssertionError(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Handy overloaded version of the push-based assertion method,
+     * implicitly using an empty {@code failureExplanation}.
+     *
+     * @see #assertThat(String, Publisher, Matcher, RetryConfigBuilder)
+     */
+    public static <T> T assertThat(Publisher<T> publisher, Matcher<? super T> matcher, RetryConfigBuilder retryConfig) {
+        return assertThat("", publisher, matcher, retryConfig);
+    }
+
+    /**
+     * Push-based version of {@link #assertThat(String, Supplier, Matcher, RetryConfigBuilder)}:
+     * verifies that the given Reactive Streams {@link Publisher} <i>eventually</i> publishes
+     * an item satisfying the {@code matcher}.
+     * <p>
+     * Instead of polling a supplier and sleeping in between, it subscribes to the publisher
+     * and checks each item as soon as it is published, hence it passes as soon as a matching item is published.
+     * The subscription requests a bounded number of items at a time, and is cancelled once the assertion
+     * is over, whatever the outcome.
+     * <p>
+     * The retry configuration is interpreted as follows:
+     * <ul>
+     *     <li>{@link RetryConfigBuilder#maxAttempts(int)}: how many items to check, at most</li>
+     *     <li>{@link RetryConfigBuilder#timeoutAfter(long, TimeUnit)}: how long to wait for a matching item</li>
+     *     <li>the wait strategy and the retry on exception are not used: if the publisher fails,
+     *     the assertion fails immediately</li>
+     * </ul>
+     * As the default timeout is infinite, it is recommended to always configure one.
+     * <p>
+     * A {@code java.util.concurrent.Flow.Publisher} can be adapted via
+     * {@code org.reactivestreams.FlowAdapters#toPublisher}.
+     * <p>
+     * In case of failure, the message has the same format as the one of the pull-based version,
+     * listing all of the items received.
+     *
+     * @return the first item which satisfies the matcher
+     * @throws AssertionError if no item satisfied the matcher, or if the publisher failed or completed before
+     */
+    public static <T> T assertThat(String failureExplanation, Publisher<T> publisher,
+                                   Matcher<? super T> matcher, RetryConfigBuilder retryConfig) {
+        try {
+            return new AssertRetryEngine(retryConfig.build())
+                    .assertThat(failureExplanation, publisher, matcher);
+        } catch (RetryAssertionError e) { // re-throw as a plain AssertionError
+            throw new AssertionError(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Handy overloaded version of {@link #assertEachEventually(String, Collection, BulkSupplier, Matcher, RetryConfigBuilder)},
+     * implicitly using an empty {@code failureExplanation}.
+     */
+    public static <K, V> void assertEachEventually(Collection<K> keys, BulkSupplier<K, V> bulkSupplier,
+                                                   Matcher<? super V> matcher, RetryConfigBuilder retryConfig) {
+        assertEachEventually("", keys, bulkSupplier, matcher, retryConfig);
+    }
+
+    /**
+     * Retry assertion over many keys at once, e.g. "each of the submitted jobs eventually reaches status DONE":
+     * <pre>
+     * assertEachEventually("jobs completed", jobIds, statusesByJobId, is("DONE"),
+     *         configureRetry()
+     *             .timeoutAfter(5, TimeUnit.MINUTES));
+     * </pre>
+     * At each attempt, the bulk supplier is invoked once, with the keys still pending only,
+     * i.e. the ones whose value has never satisfied the matcher.
+     * The assertion passes once no keys are pending. This is much cheaper than one retry assertion per key,
+     * both in terms of threads and of calls to the system under test.
+     * <p>
+     * In case of failure, the message summarizes the keys still pending, along with their last values:
+     * <pre>
+     * java.lang.AssertionError: Assertion failed after 30/30 attempts (5m 1s): jobs completed
+     *     Expected: each of 10000 keys: is "DONE"
+     *     Still pending: 37 of 10000 keys, with their last values:
+     *          - &lt;4711&gt;: "RUNNING"
+     *          - &lt;4712&gt;: "FAILED"
+     *          ...
+     *          ... and 17 more
+     *     Pending keys after each attempt: 10000, 2841, 412, ..., 37
+     * </pre>
+     *
+     * @throws AssertionError if the assertion fails all the times
+     */
+    public static <K, V> void assertEachEventually(String failureExplanation, Collection<K> keys,
+                                                   BulkSupplier<K, V> bulkSupplier, Matcher<? super V> matcher,
+                                                   RetryConfigBuilder retryConfig) {
+        try {
+            new AssertRetryEngine(retryConfig.build())
+                    .assertEachEventually(failureExplanation, keys, bulkSupplier, matcher);
+        } catch (RetryAssertionError e) { // re-throw as a plain AssertionError
+            throw new AssertionError(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Handy overloaded version of {@link #assertThatAnyOf(String, Map, Matcher, RetryConfigBuilder)},
+     * implicitly using an empty {@code failureExplanation}, and naming the sources by their position:
+     * "source 1", "source 2", etc.
+     */
+    public static <T> T assertThatAnyOf(List<? extends Supplier<? extends T>> sources, Matcher<? super T> matcher,
+                                        RetryConfigBuilder retryConfig) {
+        return assertThatAnyOf("", sources, matcher, retryConfig);
+    }
+
+    /**
+     * Handy overloaded version of {@link #assertThatAnyOf(String, Map, Matcher, RetryConfigBuilder)},
+     * naming the sources by their position: "source 1", "source 2", etc.
+     */
+    public static <T> T assertThatAnyOf(String failureExplanation, List<? extends Supplier<? extends T>> sources,
+                                        Matcher<? super T> matcher, RetryConfigBuilder retryConfig) {
+        Map<String, Supplier<? extends T>> sourcesByName = new LinkedHashMap<>();
+        for (Supplier<? extends T> source : sources) {
+            sourcesByName.put("source " + (sourcesByName.size() + 1), source);
+        }
+        return assertThatAnyOf(failureExplanation, sourcesByName, matcher, retryConfig);
+    }
+
+    /**
+     * Retry assertion over several sources of the same actual value, e.g.
+     * "eventually the entity appears on any of the read replicas".
+     * <p>
+     * At each attempt, the suppliers are called concurrently, rather than one after the other,
+     * so that an attempt is as slow as the fastest source to supply a matching value, or else
+     * as the slowest source.
+     * The assertion passes as soon as any of the sources supplies a value satisfying the matcher,
+     * in which case the calls still in progress are cancelled (i.e. their threads are interrupted).
+     * An attempt is considered failed, in terms of {@link RetryConfigBuilder#retryOnException(boolean)},
+     * only if all of the sources failed.
+     * <p>
+     * In case of failure, the actual values are grouped by source:
+     * <pre>
+     * java.lang.AssertionError: Assertion failed after 3/3 attempts (2s 13ms): entity replicated
+     *     Expected: any of [replica-1, replica-2] to supply not null
+     *     Actual values by source (in order of appearance):
+     *       replica-1:
+     *          - null
+     *          - failed: java.net.SocketTimeoutException: Read timed out
+     *          - null
+     *       replica-2:
+     *          - null
+     *          - null
+     *          - null
+     * </pre>
+     *
+     * @param sources the suppliers of actual values, by name, in the order to use in the failure report
+     * @return the first actual value which satisfies the matcher
+     * @throws AssertionError if the assertion fails all the times
+     */
+    public static <T> T assertThatAnyOf(String failureExplanation, Map<String, ? extends Supplier<? extends T>> sources,
+                                        Matcher<? super T> matcher, RetryConfigBuilder retryConfig) {
+        try {
+            return new AssertRetryEngine(retryConfig.build())
+                    .assertThatAnyOf(failureExplanation, sources, matcher);
+        } catch (RetryAssertionError e) { // re-throw as a plain AssertionError
+            throw new AssertionError(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Handy overloaded version of {@link #assertThatInt(String, IntSupplier, IntPredicate, RetryConfigBuilder)},
+     * implicitly using an empty {@code failureExplanation} and the {@link RetryConfigBuilder.DefaultValues}.
+     */
+    public static int assertThatInt(IntSupplier actualValuesSupplier, IntPredicate predicate) {
+        return assertThatInt("", actualValuesSupplier, predicate, configureRetry());
+    }
+
+    /**
+     * Handy overloaded version of {@link #assertThatInt(String, IntSupplier, IntPredicate, RetryConfigBuilder)},
+     * implicitly using an empty {@code failureExplanation}.
+     */
+    public static int assertThatInt(IntSupplier actualValuesSupplier, IntPredicate predicate,
+                                    RetryConfigBuilder retryConfig) {
+        return assertThatInt("", actualValuesSupplier, predicate, retryConfig);
+    }
+
+    /**
+     * Retry assertion specialized for {@code int} values, e.g. the size of a queue.
+     * <p>
+     * Behaves exactly like {@link #assertThat(String, Supplier, Matcher, RetryConfigBuilder)},
+     * and fails with the same message, but never boxes the actual values:
+     * they are kept in a primitive array and checked by a primitive predicate
+     * (see {@link NumericPredicates}), e.g.
+     * <pre>
+     * assertThatInt(queueDepth, intLessThan(10), configureRetry().maxAttempts(100));
+     * </pre>
+     * This makes it suitable for tight polling loops.
+     * Please note that, to make such loops allocation-free, the INFO log messages about each attempt
+     * must be disabled, by raising the level of the logger {@code me.alb_i986.testing.assertions.AssertRetry}.
+     *
+     * @return the first actual value which satisfies the predicate
+     * @throws AssertionError if the assertion fails all the times
+     * @see NumericPredicates
+     */
+    public static int assertThatInt(String failureExplanation, IntSupplier actualValuesSupplier,
+                                    IntPredicate predicate, RetryConfigBuilder retryConfig) {
+        try {
+            return new AssertRetryEngine(retryConfig.build())
+                    .assertThatInt(failureExplanation, actualValuesSupplier, predicate);
+        } catch (RetryAssertionError e) { // re-throw as a plain AssertionError
+            throw new AssertionError(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Handy overloaded version of {@link #assertThatLong(String, LongSupplier, LongPredicate, RetryConfigBuilder)},
+     * implicitly using an empty {@code failureExplanation} and the {@link RetryConfigBuilder.DefaultValues}.
+     */
+    public static long assertThatLong(LongSupplier actualValuesSupplier, LongPredicate predicate) {
+        return assertThatLong("", actualValuesSupplier, predicate, configureRetry());
+    }
+
+    /**
+     * Handy overloaded version of {@link #assertThatLong(String, LongSupplier, LongPredicate, RetryConfigBuilder)},
+     * implicitly using an empty {@code failureExplanation}.
+     */
+    public static long assertThatLong(LongSupplier actualValuesSupplier, LongPredicate predicate,
+                                      RetryConfigBuilder retryConfig) {
+        return assertThatLong("", actualValuesSupplier, predicate, retryConfig);
+    }
+
+    /**
+     * Retry assertion specialized for {@code long} values, e.g. a counter or the heap used.
+     *
+     * @return the first actual value which satisfies the predicate
+     * @throws AssertionError if the assertion fails all the times
+     * @see #assertThatInt(String, IntSupplier, IntPredicate, RetryConfigBuilder)
+     */
+    public static long assertThatLong(String failureExplanation, LongSupplier actualValuesSupplier,
+                                      LongPredicate predicate, RetryConfigBuilder retryConfig) {
+        try {
+            return new AssertRetryEngine(retryConfig.build())
+                    .assertThatLong(failureExplanation, actualValuesSupplier, predicate);
+        } catch (RetryAssertionError e) { // re-throw as a plain AssertionError
+            throw new AssertionError(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Handy overloaded version of {@link #assertThatDouble(String, DoubleSupplier, DoublePredicate, RetryConfigBuilder)},
+     * implicitly using an empty {@code failureExplanation} and the {@link RetryConfigBuilder.DefaultValues}.
+     */
+    public static double assertThatDouble(DoubleSupplier actualValuesSupplier, DoublePredicate predicate) {
+        return assertThatDouble("", actualValuesSupplier, predicate, configureRetry());
+    }
+
+    /**
+     * Handy overloaded version of {@link #assertThatDouble(String, DoubleSupplier, DoublePredicate, RetryConfigBuilder)},
+     * implicitly using an empty {@code failureExplanation}.
+     */
+    public static double assertThatDouble(DoubleSupplier actualValuesSupplier, DoublePredicate predicate,
+                                          RetryConfigBuilder retryConfig) {
+        return assertThatDouble("", actualValuesSupplier, predicate, retryConfig);
+    }
+
+    /**
+     * Retry assertion specialized for {@code double} values, e.g. a gauge.
+     *
+     * @return the first actual value which satisfies the predicate
+     * @throws AssertionError if the assertion fails all the times
+     * @see #assertThatInt(String, IntSupplier, IntPredicate, RetryConfigBuilder)
+     */
+    public static double assertThatDouble(String failureExplanation, DoubleSupplier actualValuesSupplier,
+                                          DoublePredicate predicate, RetryConfigBuilder retryConfig) {
+        try {
+            return new AssertRetryEngine(retryConfig.build())
+                    .assertThatDouble(failureExplanation, actualValuesSupplier, predicate);
+        } catch (RetryAssertionError e) { // re-throw as a plain AssertionError
+            throw new AssertionError(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Handy overloaded version of {@link #assertRate(String, LongSupplier, TimeUnit, int, Matcher, RetryConfigBuilder)},
+     * implicitly using an empty {@code failureExplanation} and no smoothing.
+     */
+    public static double assertRate(LongSupplier counter, TimeUnit per, Matcher<? super Double> rateMatcher,
+                                    RetryConfigBuilder retryConfig) {
+        return assertRate("", counter, per, 1, rateMatcher, retryConfig);
+    }
+
+    /**
+     * Handy overloaded version of {@link #assertRate(String, LongSupplier, TimeUnit, int, Matcher, RetryConfigBuilder)},
+     * implicitly using no smoothing: the rate checked is the one between the last two samples.
+     */
+    public static double assertRate(String failureExplanation, LongSupplier counter, TimeUnit per,
+                                    Matcher<? super Double> rateMatcher, RetryConfigBuilder retryConfig) {
+        return assertRate(failureExplanation, counter, per, 1, rateMatcher, retryConfig);
+    }
+
+    /**
+     * Retry assertion on the rate at which a monotonic counter grows, e.g.
+     * "eventually the consumer processes at least 5k messages per second":
+     * <pre>
+     * assertRate("consumer throughput", processedMessages, TimeUnit.SECONDS, 3, greaterThanOrEqualTo(5000.0),
+     *         configureRetry()
+     *             .sleepBetweenAttempts(1, TimeUnit.SECONDS)
+     *             .maxAttempts(30));
+     * </pre>
+     * The counter is sampled once per attempt, along with a timestamp.
+     * The rate is the increase of the counter between successive samples, divided by the time elapsed,
+     * optionally smoothed over the last {@code window} intervals.
+     * Therefore, the first attempt only establishes the baseline and never passes.
+     * If the counter goes backwards, e.g. because the process restarted, it is assumed to count from 0 since the
+     * previous sample.
+     * <p>
+     * In case of failure, the message lists the rate observed in each interval, instead of the raw counter values:
+     * <pre>
+     * java.lang.AssertionError: Assertion failed after 30/30 attempts (29s 87ms): consumer throughput
+     *     Expected: a rate per second (over the last 3 intervals) of a value equal to or greater than &lt;5000.0&gt;
+     *     Observed rates per second (in order of appearance):
+     *          - &lt;4210.3&gt; (+4213 in 1s 1ms)
+     *          - &lt;612.0&gt; (+612 in 1s, counter reset)
+     *          ...
+     * </pre>
+     *
+     * @param per the time unit of the rate, e.g. {@link TimeUnit#SECONDS} for a rate per second
+     * @param window the number of most recent intervals to smooth the rate over; 1 means no smoothing
+     * @return the first rate which satisfies the matcher
+     * @throws AssertionError if the assertion fails all the times
+     */
+    public static double assertRate(String failureExplanation, LongSupplier counter, TimeUnit per, int window,
+                                    Matcher<? super Double> rateMatcher, RetryConfigBuilder retryConfig) {
+        try {
+            return new AssertRetryEngine(retryConfig.build())
+                    .assertRate(failureExplanation, counter, per, window, rateMatcher);
+        } catch (RetryAssertionError e) { // re-throw as a plain AssertionError
+            throw new AssertionError(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Handy overloaded version of {@link #assertLatency(String, Supplier, LatencyPercentiles, RetryConfigBuilder)},
+     * implicitly using an empty {@code failureExplanation}.
+     */
+    public static void assertLatency(Supplier<?> operation, LatencyPercentiles expected, RetryConfigBuilder retryConfig) {
+        assertLatency("", operation, expected, retryConfig);
+    }
+
+    /**
+     * Asserts on the latency of an operation: invokes it repeatedly, timing each invocation,
+     * and then checks the percentiles of the measured latencies, e.g.
+     * <pre>
+     * assertLatency("checkout", checkout,
+     *         latencyPercentiles()
+     *             .warmup(100)
+     *             .percentile(50, lessThan(5.0), TimeUnit.MILLISECONDS)
+     *             .percentile(99, lessThan(50.0), TimeUnit.MILLISECONDS),
+     *         configureRetry()
+     *             .maxAttempts(1000)
+     *             .timeoutAfter(60, TimeUnit.SECONDS));
+     * </pre>
+     * The retry configuration is interpreted as follows:
+     * <ul>
+     *     <li>{@link RetryConfigBuilder#maxAttempts(int)}: how many invocations to measure, after the warmup</li>
+     *     <li>{@link RetryConfigBuilder#timeoutAfter(long, TimeUnit)}: caps the total running time, warmup included;
+     *     if it expires, the percentiles are checked against the invocations measured so far</li>
+     *     <li>the wait strategy is run between invocations only if explicitly configured, or set by a profile</li>
+     *     <li>{@link RetryConfigBuilder#retryOnException(boolean)}: whether a failing invocation makes the assertion
+     *     fail immediately, or is just not measured</li>
+     * </ul>
+     * The latencies are measured with {@link System#nanoTime()} and collected in a compact histogram,
+     * with a relative error below 2%. In case of failure, the message shows the measured distribution, e.g.
+     * <pre>
+     * java.lang.AssertionError: Latency assertion failed after 1000/1000 calls (12s 3ms): checkout
+     *     Expected: p50 a value less than &lt;5.0&gt; ms, p99 a value less than &lt;50.0&gt; ms
+     *     Measured latency (1000 calls): min=0.812ms p50=4.100ms p90=9.871ms p99=63.201ms p99.9=79.003ms max=80.011ms mean=5.213ms
+     *     but: p99 was &lt;63.201&gt; ms
+     * </pre>
+     *
+     * @throws AssertionError if the latency is not as expected
+     * @see #latencyPercentiles()
+     */
+    public static void assertLatency(String failureExplanation, Supplier<?> operation, LatencyPercentiles expected,
+                                     RetryConfigBuilder retryConfig) {
+        try {
+            new AssertRetryEngine(retryConfig.build())
+                    .assertLatency(failureExplanation, operation, expected);
+        } catch (RetryAssertionError e) { // re-throw as a plain AssertionError
+            throw new AssertionError(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Starts monitoring an invariant in background, e.g. "the error count stays 0" during a load test.
+     * <p>
+     * Samples the values returned by the {@code supplier} at a fixed rate, on a background thread,
+     * and records the first one not satisfying the {@code matcher}.
+     * Call {@link InvariantMonitor#close()} at the end of the test to stop sampling and get the verdict:
+     * <pre>
+     * try (InvariantMonitor&lt;Long&gt; errors = monitor("no errors", errorCount, is(0L), 100, TimeUnit.MILLISECONDS)) {
+     *     runLoadTest();
+     * }
+     * </pre>
+     *
+     * @param samplingPeriod how often to sample
+     * @return the running monitor
+     * @see InvariantMonitor
+     */
+    public static <T> InvariantMonitor<T> monitor(String failureExplanation, Supplier<T> actualValuesSupplier,
+                                                  Matcher<? super T> matcher, long samplingPeriod, TimeUnit timeUnit) {
+        return new InvariantMonitor<>(failureExplanation, actualValuesSupplier, matcher, samplingPeriod, timeUnit);
+    }
+
     /**
      * Syntactic sugar which makes
      * {@link AssertRetry#assertThat(String, Supplier, Matcher, RetryConfigBuilder) retry assertions}
@@ -191,4 +667,25 @@ public class AssertRetry {
     public static RetryConfigBuilder configureRetry() {
         return new RetryConfigBuilder();
     }
+
+    /**
+     * Handy overloaded version of {@link #configureRetry()}, taking the values of the parameters
+     * not explicitly set from the given timing profile.
+     *
+     * @throws IllegalArgumentException if no profile with the given name exists
+     * @see RetryConfigBuilder#profile(String) the format of the profiles
+     */
+    public static RetryConfigBuilder configureRetry(String profile) {
+        return configureRetry().profile(profile);
+    }
+
+    /**
+     * Provides access to a fluent DSL for expressing the expected latency of an operation.
+     *
+     * @see #assertLatency(String, Supplier, LatencyPercentiles, RetryConfigBuilder)
+     */
+    @SuppressWarnings("deprecation")
+    public static LatencyPercentiles latencyPercentiles() {
+        return new LatencyPercentiles();
+    }
 }
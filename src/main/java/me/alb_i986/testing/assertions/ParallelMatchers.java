@@ -0,0 +1,231 @@
+package me.alb_i986.testing.assertions;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parallel versions of the Hamcrest collection matchers {@code hasItem} and {@code everyItem},
+ * for retry assertions over very large collections, e.g.
+ * <pre>
+ * assertThat(exportedRows, eventually(parallelEveryItem(hasProperty("status", is("DONE")))));
+ * </pre>
+ * The elements are checked concurrently by a fork/join pool with as many threads as processors.
+ * {@link #parallelHasItem(Matcher)} stops as soon as an element matches,
+ * and {@link #parallelEveryItem(Matcher)} as soon as an element does not.
+ * The mismatch description names only the offending elements, never the whole collection.
+ * <p>
+ * Please note: the given element matcher is invoked concurrently from several threads,
+ * hence it must be thread safe, as most Hamcrest matchers are.
+ */
+public class ParallelMatchers {
+
+    /**
+     * Collections smaller than this are not split any further.
+     */
+    static final int SEQUENTIAL_THRESHOLD = 1024;
+
+    /**
+     * Max number of offending elements named in the mismatch description.
+     */
+    static final int MAX_OFFENDERS_DESCRIBED = 10;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool();
+
+    protected ParallelMatchers() {
+        // static class
+    }
+
+    /**
+     * Parallel version of {@link org.hamcrest.Matchers#hasItem(Matcher)}.
+     */
+    public static <T> Matcher<Iterable<? super T>> parallelHasItem(final Matcher<? super T> itemMatcher) {
+        return new TypeSafeDiagnosingMatcher<Iterable<? super T>>() {
+            @Override
+            protected boolean matchesSafely(Iterable<? super T> collection, Description mismatchDescription) {
+                Object[] items = toArray(collection);
+                if (new ParallelSearch(items, 0, items.length, itemMatcher, true, new AtomicBoolean()).invokeOn(POOL)) {
+                    return true;
+                }
+                mismatchDescription.appendText(items.length == 0 ? "was empty"
+                        : "none of the " + items.length + " items matched");
+                return false;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a collection containing ").appendDescriptionOf(itemMatcher);
+            }
+        };
+    }
+
+    /**
+     * Parallel version of {@link org.hamcrest.Matchers#everyItem(Matcher)}.
+     * The mismatch description names up to {@value #MAX_OFFENDERS_DESCRIBED} offending elements,
+     * along with their index: the search stops as soon as as many are found.
+     */
+    public static <U> Matcher<Iterable<U>> parallelEveryItem(final Matcher<U> itemMatcher) {
+        return new TypeSafeDiagnosingMatcher<Iterable<U>>() {
+            @Override
+            protected boolean matchesSafely(Iterable<U> collection, Description mismatchDescription) {
+                Object[] items = toArray(collection);
+                if (mismatchDescription instanceof Description.NullDescription) { // just matching
+                    return !new ParallelSearch(items, 0, items.length, itemMatcher, false, new AtomicBoolean())
+                            .invokeOn(POOL);
+                }
+                return !describeOffenders(items, itemMatcher, mismatchDescription);
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("every item is ").appendDescriptionOf(itemMatcher);
+            }
+        };
+    }
+
+    /**
+     * @return true if any offending element was found, and described
+     */
+    private static boolean describeOffenders(Object[] items, Matcher<?> itemMatcher, Description mismatchDescription) {
+        OffendersCollector.Result offenders = POOL.invoke(
+                new OffendersCollector(items, 0, items.length, itemMatcher, new AtomicInteger()));
+        if (offenders.count == 0) {
+            return false;
+        }
+        mismatchDescription.appendText((offenders.count < MAX_OFFENDERS_DESCRIBED ? "" : "at least ")
+                + Math.min(offenders.count, MAX_OFFENDERS_DESCRIBED) + " of the " + items.length + " items did not match:");
+        for (int index : offenders.firstIndexes) {
+            mismatchDescription.appendText("\n          [" + index + "] ");
+            itemMatcher.describeMismatch(items[index], mismatchDescription);
+        }
+        return true;
+    }
+
+    private static Object[] toArray(Iterable<?> iterable) {
+        if (iterable instanceof Collection) {
+            return ((Collection<?>) iterable).toArray();
+        }
+        List<Object> list = new ArrayList<>();
+        for (Object item : iterable) {
+            list.add(item);
+        }
+        return list.toArray();
+    }
+
+    /**
+     * Looks for an element whose match outcome is {@code wanted}, stopping all of the subtasks
+     * as soon as one is found.
+     */
+    private static class ParallelSearch extends RecursiveTask<Boolean> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] items;
+        private final int from;
+        private final int to;
+        private final Matcher<?> itemMatcher;
+        private final boolean wanted;
+        private final AtomicBoolean found;
+
+        ParallelSearch(Object[] items, int from, int to, Matcher<?> itemMatcher, boolean wanted, AtomicBoolean found) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.itemMatcher = itemMatcher;
+            this.wanted = wanted;
+            this.found = found;
+        }
+
+        boolean invokeOn(ForkJoinPool pool) {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                return compute(); // not worth a context switch
+            }
+            return pool.invoke(this);
+        }
+
+        @Override
+        protected Boolean compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to && !found.get(); i++) {
+                    if (itemMatcher.matches(items[i]) == wanted) {
+                        found.set(true);
+                        return true;
+                    }
+                }
+                return false;
+            }
+            int middle = (from + to) >>> 1;
+            ParallelSearch left = new ParallelSearch(items, from, middle, itemMatcher, wanted, found);
+            ParallelSearch right = new ParallelSearch(items, middle, to, itemMatcher, wanted, found);
+            left.fork();
+            boolean foundOnTheRight = right.compute();
+            return left.join() || foundOnTheRight;
+        }
+    }
+
+    /**
+     * Collects the indexes of the elements not matching, stopping all of the subtasks
+     * as soon as {@value #MAX_OFFENDERS_DESCRIBED} are found.
+     */
+    private static class OffendersCollector extends RecursiveTask<OffendersCollector.Result> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] items;
+        private final int from;
+        private final int to;
+        private final Matcher<?> itemMatcher;
+        private final AtomicInteger found;
+
+        OffendersCollector(Object[] items, int from, int to, Matcher<?> itemMatcher, AtomicInteger found) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.itemMatcher = itemMatcher;
+            this.found = found;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                Result result = new Result();
+                for (int i = from; i < to && found.get() < MAX_OFFENDERS_DESCRIBED; i++) {
+                    if (!itemMatcher.matches(items[i])) {
+                        found.incrementAndGet();
+                        result.count++;
+                        result.firstIndexes.add(i);
+                    }
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            OffendersCollector left = new OffendersCollector(items, from, middle, itemMatcher, found);
+            OffendersCollector right = new OffendersCollector(items, middle, to, itemMatcher, found);
+            left.fork();
+            Result rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+
+        static class Result {
+            private int count;
+            private List<Integer> firstIndexes = new ArrayList<>();
+
+            Result merge(Result other) {
+                count += other.count;
+                firstIndexes.addAll(other.firstIndexes); // the other one comes next: the indexes stay sorted
+                if (firstIndexes.size() > MAX_OFFENDERS_DESCRIBED) {
+                    firstIndexes = new ArrayList<>(firstIndexes.subList(0, MAX_OFFENDERS_DESCRIBED));
+                }
+                return this;
+            }
+        }
+    }
+}
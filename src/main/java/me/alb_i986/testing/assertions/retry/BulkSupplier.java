@@ -0,0 +1,20 @@
+package me.alb_i986.testing.assertions.retry;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Supplies the actual values of many keys at once, e.g. the status of several jobs by ID,
+ * fetched with a single remote call.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the actual values
+ */
+public interface BulkSupplier<K, V> {
+
+    /**
+     * @param keys the keys whose values are needed; never empty
+     * @return the values of the given keys; keys missing from the map are considered to be mapped to null
+     */
+    Map<K, V> get(Set<K> keys) throws Exception;
+}
@@ -0,0 +1,192 @@
+package me.alb_i986.testing.assertions.retry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import me.alb_i986.testing.assertions.AssertRetry;
+import me.alb_i986.testing.assertions.retry.internal.TimeUtils;
+
+/**
+ * A named circuit breaker, shared by all of the retry assertions configured to use it, e.g. by all of the tests
+ * hitting the same system, so that they fail fast when the system is down, instead of each one of them
+ * retrying until its own timeout expires.
+ * <p>
+ * The circuit is initially <i>closed</i>: the suppliers of actual values are invoked as usual.
+ * After {@code failureThreshold} consecutive supplier exceptions, across all of the assertions using it,
+ * the circuit <i>opens</i>: from then on, the assertions fail immediately, without invoking their supplier.
+ * Once {@code openInterval} has elapsed, the circuit is <i>half-open</i>: the next attempt is let through,
+ * as a probe. If the supplier returns, whatever the value, the circuit is closed again; otherwise it stays open
+ * for another interval. While the probe is in progress, the other assertions keep failing fast.
+ * If the probe does not complete within {@code openInterval}, e.g. because its assertion was aborted by an error,
+ * the next attempt is let through as a new probe.
+ * <p>
+ * Only the assertions polling a supplier of actual values are guarded by the circuit breaker:
+ * the assertions on a {@link org.reactivestreams.Publisher} and the latency assertions ignore it.
+ * <p>
+ * Instances are thread safe.
+ *
+ * @see RetryConfigBuilder#circuitBreaker(CircuitBreaker)
+ */
+public class CircuitBreaker {
+
+    private static final Logger LOG = Logger.getLogger(AssertRetry.class.getName());
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final ConcurrentMap<String, CircuitBreaker> REGISTRY = new ConcurrentHashMap<>();
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openIntervalNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private long probeStartedAtNanos;
+    private Throwable lastFailure;
+
+    protected CircuitBreaker(String name, int failureThreshold, long openInterval, TimeUnit timeUnit) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openIntervalNanos = timeUnit.toNanos(openInterval);
+    }
+
+    /**
+     * @return the circuit breaker with the given name, creating it with the default settings if needed:
+     * {@value #DEFAULT_FAILURE_THRESHOLD} consecutive failures, half-open every 30 seconds
+     * @throws IllegalArgumentException in case of a null or empty name
+     */
+    public static CircuitBreaker named(String name) {
+        CircuitBreaker breaker = REGISTRY.get(checkName(name));
+        return breaker != null ? breaker
+                : named(name, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the circuit breaker with the given name, creating it with the given settings if needed
+     * @throws IllegalArgumentException in case of a null or empty name, if failureThreshold or openInterval
+     * are not positive, if timeUnit is null, or if a circuit breaker with the same name but different settings exists
+     */
+    public static CircuitBreaker named(String name, int failureThreshold, long openInterval, TimeUnit timeUnit) {
+        checkName(name);
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold < 1");
+        }
+        if (openInterval <= 0) {
+            throw new IllegalArgumentException("openInterval must be positive");
+        }
+        if (timeUnit == null) {
+            throw new IllegalArgumentException("timeUnit is null");
+        }
+        CircuitBreaker newBreaker = new CircuitBreaker(name, failureThreshold, openInterval, timeUnit);
+        CircuitBreaker breaker = REGISTRY.putIfAbsent(name, newBreaker);
+        if (breaker == null) {
+            return newBreaker;
+        }
+        if (breaker.failureThreshold != newBreaker.failureThreshold
+                || breaker.openIntervalNanos != newBreaker.openIntervalNanos) {
+            throw new IllegalArgumentException("circuit breaker '" + name + "' already exists with different settings: "
+                    + breaker);
+        }
+        return breaker;
+    }
+
+    private static String checkName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("null or empty name");
+        }
+        return name;
+    }
+
+    /**
+     * To be invoked before invoking the supplier of actual values.
+     *
+     * @return true if the supplier may be invoked; false if the circuit is open, or half-open with a probe in progress
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (state == State.OPEN && now - openedAtNanos >= openIntervalNanos) {
+            state = State.HALF_OPEN;
+            probeStartedAtNanos = now;
+            LOG.info("Circuit breaker '" + name + "' half-open: probing for recovery");
+            return true;
+        }
+        if (state == State.HALF_OPEN && now - probeStartedAtNanos >= openIntervalNanos) {
+            probeStartedAtNanos = now;
+            LOG.warning("Circuit breaker '" + name + "' half-open: the previous probe never completed, probing again");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * To be invoked when the supplier of actual values returned, whatever the value: closes the circuit.
+     */
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            LOG.info("Circuit breaker '" + name + "' closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        lastFailure = null;
+    }
+
+    /**
+     * To be invoked when the supplier of actual values threw: opens the circuit after too many consecutive failures,
+     * or if the probe failed.
+     */
+    public synchronized void recordFailure(Throwable failure) {
+        consecutiveFailures++;
+        lastFailure = failure;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            LOG.warning("Circuit breaker '" + name + "' open after " + consecutiveFailures
+                    + " consecutive supplier failures. Last failure: " + failure);
+        }
+    }
+
+    /**
+     * Closes the circuit, forgetting about the failures recorded so far.
+     */
+    public synchronized void reset() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        lastFailure = null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * @return the last supplier exception recorded since the circuit was last closed; null if none
+     */
+    public synchronized Throwable getLastFailure() {
+        return lastFailure;
+    }
+
+    @Override
+    public String toString() {
+        return "circuit breaker '" + name + "' (open after " + failureThreshold + " consecutive failures, for "
+                + TimeUtils.prettyPrint(TimeUnit.NANOSECONDS.toMillis(openIntervalNanos)) + ")";
+    }
+}
@@ -0,0 +1,18 @@
+package me.alb_i986.testing.assertions.retry;
+
+/**
+ * A {@link Supplier} which can tell that the source of actual values has not changed since the previous invocation,
+ * e.g. an HTTP resource answering 304 Not Modified.
+ * <p>
+ * When the source has not changed, the retry assertions count the attempt as failed,
+ * without checking the value against the matcher again, and without adding it again to the values
+ * listed in the failure message.
+ */
+public interface ConditionalSupplier<T> extends Supplier<T> {
+
+    /**
+     * @return true if the value returned by the last invocation of {@link #get()} is the same as the previous one,
+     *         because the source has not changed
+     */
+    boolean isUnchanged();
+}
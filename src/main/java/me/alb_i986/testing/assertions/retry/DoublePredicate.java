@@ -0,0 +1,17 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.hamcrest.SelfDescribing;
+
+/**
+ * A condition on {@code double} values, playing the role of a Hamcrest matcher
+ * without boxing the values.
+ * <p>
+ * Implementations should describe themselves the same way matchers do,
+ * as the description ends up in the failure message.
+ *
+ * @see NumericPredicates
+ */
+public interface DoublePredicate extends SelfDescribing {
+
+    boolean test(double value);
+}
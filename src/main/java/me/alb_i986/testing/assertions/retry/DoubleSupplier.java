@@ -0,0 +1,9 @@
+package me.alb_i986.testing.assertions.retry;
+
+/**
+ * Specialization of {@link Supplier} for {@code double} values, avoiding boxing.
+ */
+public interface DoubleSupplier {
+
+    double getAsDouble() throws Exception;
+}
@@ -0,0 +1,302 @@
+package me.alb_i986.testing.assertions.retry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import me.alb_i986.testing.assertions.retry.internal.TimeUtils;
+
+/**
+ * Follows a growing text file, typically a log, like {@code tail -F} does.
+ * <p>
+ * Provides a {@link #newLines() supplier} returning, on each attempt, only the lines appended
+ * since the previous attempt, and a {@link #waitForChanges(long, TimeUnit) wait strategy}
+ * which returns as soon as the file changes, rather than sleeping for a fixed time.
+ * Example:
+ * <pre>
+ * try (FileTail log = new FileTail(new File("app.log")).skipExistingLines()) {
+ *     startTheApp();
+ *     assertThat(log.newLines(), eventually(hasItem(containsString("Started"))),
+ *             configureRetry()
+ *                 .waitStrategy(log.waitForChanges(1, TimeUnit.SECONDS))
+ *                 .maxAttempts(Integer.MAX_VALUE)
+ *                 .timeoutAfter(60, TimeUnit.SECONDS));
+ * }
+ * </pre>
+ * Each attempt reads only the bytes appended since the last one, so the cost of polling
+ * does not depend on the size of the file.
+ * A line is returned only once it is complete, i.e. terminated by a line feed.
+ * By default, the first attempt returns all of the lines already in the file: with a large existing log,
+ * {@link #skipExistingLines() skip them}, not to have them all in the failure message.
+ * <p>
+ * If the file is truncated, it is read again from the beginning.
+ * If it is rotated, i.e. renamed and replaced by a new file, the rest of the old file is read,
+ * and then the new file is followed from the beginning.
+ * A missing file is treated as an empty one.
+ * <p>
+ * The charset must encode the line feed as the single byte {@code 0x0A}, like UTF-8 and ISO-8859-1 do.
+ * Not thread safe.
+ */
+public class FileTail implements Closeable {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final Charset charset;
+    private final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+    private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+
+    private FileChannel channel;
+    private Object fileKey;
+    private long offset;
+    private WatchService watchService;
+
+    public FileTail(File file) {
+        this(file, Charset.forName("UTF-8"));
+    }
+
+    public FileTail(File file, Charset charset) {
+        if (file == null) {
+            throw new IllegalArgumentException("null file");
+        }
+        if (charset == null) {
+            throw new IllegalArgumentException("null charset");
+        }
+        this.path = file.toPath().toAbsolutePath();
+        this.charset = charset;
+    }
+
+    /**
+     * Skips the lines already in the file, like {@code tail -n 0 -F} does, so that the first invocation
+     * of the {@link #newLines() supplier} returns only the lines appended from now on.
+     * A line still incomplete now is returned in full once complete; unless it is already longer than 64 KB,
+     * in which case only its rest is.
+     *
+     * @return this
+     * @throws IOException if the file exists but cannot be read
+     */
+    public FileTail skipExistingLines() throws IOException {
+        Object currentKey = currentFileKey();
+        if (currentKey == null) {
+            return this; // whatever is written from now on is new
+        }
+        if (channel == null) {
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                return this;
+            }
+            fileKey = currentKey;
+        }
+        offset = startOfLastLine(channel.size());
+        partialLine.reset();
+        return this;
+    }
+
+    /**
+     * @return a supplier returning the lines appended to the file since the previous invocation,
+     *         or, for the first invocation, all of the lines in the file, unless {@link #skipExistingLines() skipped};
+     *         the returned list is empty if no line has been appended
+     */
+    public Supplier<List<String>> newLines() {
+        return new Supplier<List<String>>() {
+            @Override
+            public List<String> get() throws IOException {
+                return readNewLines();
+            }
+
+            @Override
+            public String toString() {
+                return "new lines of " + path;
+            }
+        };
+    }
+
+    /**
+     * @return a wait strategy which returns as soon as the file is modified (or created),
+     *         or when the given max time has elapsed, whichever comes first
+     */
+    public Runnable waitForChanges(long maxWait, TimeUnit timeUnit) {
+        final long maxWaitNanos = timeUnit.toNanos(maxWait);
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    awaitChange(maxWaitNanos);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot watch " + path, e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public String toString() {
+                return "wait for changes to " + path + ", max " + TimeUtils.prettyPrint(TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+            }
+        };
+    }
+
+    /**
+     * Reads the complete lines appended since the last read.
+     */
+    List<String> readNewLines() throws IOException {
+        List<String> lines = new ArrayList<>();
+        Object currentKey = currentFileKey();
+        if (channel != null && currentKey != null && !currentKey.equals(fileKey)) { // rotated
+            readAppendedBytes(lines);
+            if (partialLine.size() > 0) { // the old file will not be appended to anymore
+                lines.add(decodeLine());
+            }
+            closeChannel();
+        }
+        if (channel == null) {
+            if (currentKey == null && !Files.exists(path)) {
+                return lines;
+            }
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                return lines;
+            }
+            fileKey = currentKey;
+            offset = 0;
+            partialLine.reset();
+        }
+        if (channel.size() < offset) { // truncated
+            offset = 0;
+            partialLine.reset();
+        }
+        readAppendedBytes(lines);
+        return lines;
+    }
+
+    private void readAppendedBytes(List<String> lines) throws IOException {
+        int read;
+        chunk.clear();
+        while ((read = channel.read(chunk, offset)) > 0) {
+            offset += read;
+            byte[] bytes = chunk.array();
+            int lineStart = 0;
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n') {
+                    partialLine.write(bytes, lineStart, i - lineStart);
+                    lines.add(decodeLine());
+                    lineStart = i + 1;
+                }
+            }
+            partialLine.write(bytes, lineStart, read - lineStart);
+            chunk.clear();
+        }
+    }
+
+    /**
+     * @return the offset following the last line feed within the last chunk of the file,
+     *         or the end of the file, if none
+     */
+    private long startOfLastLine(long size) throws IOException {
+        long start = Math.max(0, size - CHUNK_SIZE);
+        chunk.clear();
+        while (start + chunk.position() < size && channel.read(chunk, start + chunk.position()) > 0) {
+            // read up to the end
+        }
+        byte[] bytes = chunk.array();
+        for (int i = chunk.position() - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return start + i + 1;
+            }
+        }
+        return start == 0 ? 0 : size;
+    }
+
+    private String decodeLine() {
+        String line = new String(partialLine.toByteArray(), charset);
+        partialLine.reset();
+        return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+    }
+
+    private void awaitChange(long maxWaitNanos) throws IOException, InterruptedException {
+        if (hasUnreadBytes()) {
+            return;
+        }
+        if (watchService == null) {
+            watchService = FileSystems.getDefault().newWatchService();
+            path.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        long deadline = System.nanoTime() + maxWaitNanos;
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            WatchKey key = watchService.poll(remaining, TimeUnit.NANOSECONDS);
+            if (key == null) {
+                return;
+            }
+            boolean changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW || path.getFileName().equals(event.context())) {
+                    changed = true;
+                }
+            }
+            key.reset();
+            if (changed) {
+                return;
+            }
+        }
+    }
+
+    private boolean hasUnreadBytes() throws IOException {
+        Object currentKey = currentFileKey();
+        if (channel == null) {
+            return currentKey != null;
+        }
+        return (currentKey != null && !currentKey.equals(fileKey)) || channel.size() != offset;
+    }
+
+    private Object currentFileKey() throws IOException {
+        try {
+            Object key = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+            return key == null ? Collections.emptyList() : key; // no file keys on this platform: never detect rotations
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        channel.close();
+        channel = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            closeChannel();
+        }
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "tail of " + path;
+    }
+}
@@ -0,0 +1,260 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.hamcrest.FeatureMatcher;
+import org.hamcrest.Matcher;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls an HTTP resource with GET requests, for retry assertions on REST endpoints, e.g.
+ * <pre>
+ * assertThat(new HttpSupplier(new URL("http://localhost:8080/orders/42")),
+ *         eventually(HttpSupplier.body(containsString("SHIPPED"))),
+ *         configureRetry().maxAttempts(10));
+ * </pre>
+ * Compared to a hand-written supplier opening a connection and downloading the resource on each attempt:
+ * <ul>
+ *     <li>the responses are read in full, so that the underlying connection is kept alive and reused
+ *     by the next attempt (as long as the JDK property {@code http.keepAlive} is not disabled)</li>
+ *     <li>the requests are conditional: the validators of the last response ({@code ETag} and {@code Last-Modified})
+ *     are sent back in the headers {@code If-None-Match} and {@code If-Modified-Since}.
+ *     When the server answers 304 Not Modified, the previous response is returned,
+ *     and the retry assertion skips the check (see {@link ConditionalSupplier})</li>
+ *     <li>optionally, {@link #streamUntil(Matcher) the body can be read line by line}, and
+ *     only up to the first line of interest</li>
+ * </ul>
+ * The body is decoded with the charset of the {@code Content-Type}, if any; otherwise with UTF-8 for JSON
+ * ({@code application/json} and the {@code +json} types), as per RFC 8259, and with ISO-8859-1 for any other type.
+ * Responses with an error status (4xx, 5xx) are returned as any other response.
+ * Network errors are thrown as IOExceptions: configure {@link RetryConfigBuilder#retryOnException(boolean)} accordingly.
+ * <p>
+ * Not thread safe.
+ */
+public class HttpSupplier implements ConditionalSupplier<HttpSupplier.Response> {
+
+    private static final Charset DEFAULT_CHARSET = Charset.forName("ISO-8859-1");
+    private static final Charset JSON_CHARSET = Charset.forName("UTF-8");
+
+    private final URL url;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    private int connectTimeoutMillis = 5000;
+    private int readTimeoutMillis = 5000;
+    private Matcher<? super String> lastLineMatcher;
+
+    private Response lastResponse;
+    private boolean unchanged;
+
+    public HttpSupplier(URL url) {
+        if (url == null) {
+            throw new IllegalArgumentException("null url");
+        }
+        this.url = url;
+    }
+
+    /**
+     * Sets a header to be sent with each request.
+     */
+    public HttpSupplier header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    /**
+     * The timeouts of each request, 5s by default.
+     *
+     * @throws IllegalArgumentException if a timeout is not positive
+     */
+    public HttpSupplier timeouts(long connectTimeout, long readTimeout, TimeUnit timeUnit) {
+        if (connectTimeout <= 0 || readTimeout <= 0) {
+            throw new IllegalArgumentException("timeouts must be positive");
+        }
+        this.connectTimeoutMillis = (int) Math.min(Integer.MAX_VALUE, timeUnit.toMillis(connectTimeout));
+        this.readTimeoutMillis = (int) Math.min(Integer.MAX_VALUE, timeUnit.toMillis(readTimeout));
+        return this;
+    }
+
+    /**
+     * Reads the body line by line, and stops reading at the first line satisfying the given matcher,
+     * which is then the last line of the {@link Response#getBody() body}.
+     * Useful with large or never-ending bodies, when only a line is of interest.
+     * <p>
+     * Please note that a connection whose body has not been read in full may not be reused.
+     */
+    public HttpSupplier streamUntil(Matcher<? super String> lastLineMatcher) {
+        this.lastLineMatcher = lastLineMatcher;
+        return this;
+    }
+
+    @Override
+    public Response get() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(connectTimeoutMillis);
+        connection.setReadTimeout(readTimeoutMillis);
+        connection.setUseCaches(false);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            connection.setRequestProperty(header.getKey(), header.getValue());
+        }
+        if (lastResponse != null) {
+            if (lastResponse.getHeader("ETag") != null) {
+                connection.setRequestProperty("If-None-Match", lastResponse.getHeader("ETag"));
+            }
+            if (lastResponse.getHeader("Last-Modified") != null) {
+                connection.setRequestProperty("If-Modified-Since", lastResponse.getHeader("Last-Modified"));
+            }
+        }
+
+        int status = connection.getResponseCode();
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED && lastResponse != null) {
+            drainAndClose(connection.getInputStream());
+            unchanged = true;
+            return lastResponse;
+        }
+        InputStream bodyStream = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        String body = bodyStream == null ? "" : readBody(bodyStream, charsetOf(connection.getContentType()));
+        unchanged = false;
+        lastResponse = new Response(status, connection.getHeaderFields(), body);
+        return lastResponse;
+    }
+
+    @Override
+    public boolean isUnchanged() {
+        return unchanged;
+    }
+
+    private String readBody(InputStream bodyStream, Charset charset) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(bodyStream, charset))) {
+            StringBuilder body = new StringBuilder();
+            if (lastLineMatcher == null) {
+                char[] buffer = new char[8192];
+                int read;
+                while ((read = reader.read(buffer)) != -1) {
+                    body.append(buffer, 0, read);
+                }
+            } else {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    body.append(line).append('\n');
+                    if (lastLineMatcher.matches(line)) {
+                        break;
+                    }
+                }
+            }
+            return body.toString();
+        }
+    }
+
+    private static void drainAndClose(InputStream stream) throws IOException {
+        if (stream == null) {
+            return;
+        }
+        try (InputStream in = stream) {
+            byte[] buffer = new byte[1024];
+            while (in.read(buffer) != -1) {
+                // drain, so that the connection can be reused
+            }
+        }
+    }
+
+    static Charset charsetOf(String contentType) {
+        if (contentType == null) {
+            return DEFAULT_CHARSET;
+        }
+        String[] parameters = contentType.split(";");
+        String mediaType = parameters[0].trim().toLowerCase(Locale.ROOT);
+        Charset defaultCharset = mediaType.equals("application/json") || mediaType.endsWith("+json") ?
+                JSON_CHARSET : DEFAULT_CHARSET;
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                try {
+                    return Charset.forName(parameter.substring("charset=".length()).replace("\"", ""));
+                } catch (IllegalArgumentException e) {
+                    return defaultCharset;
+                }
+            }
+        }
+        return defaultCharset;
+    }
+
+    /**
+     * @return a matcher of the status code of a response
+     */
+    public static Matcher<Response> status(Matcher<? super Integer> statusMatcher) {
+        return new FeatureMatcher<Response, Integer>(statusMatcher, "a response with status", "status") {
+            @Override
+            protected Integer featureValueOf(Response actual) {
+                return actual.getStatus();
+            }
+        };
+    }
+
+    /**
+     * @return a matcher of the body of a response
+     */
+    public static Matcher<Response> body(Matcher<? super String> bodyMatcher) {
+        return new FeatureMatcher<Response, String>(bodyMatcher, "a response with body", "body") {
+            @Override
+            protected String featureValueOf(Response actual) {
+                return actual.getBody();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "GET " + url;
+    }
+
+    /**
+     * An HTTP response. Immutable object.
+     */
+    public static class Response {
+
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final String body;
+
+        public Response(int status, Map<String, List<String>> headers, String body) {
+            this.status = status;
+            this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the first value of the given header (case insensitive), or null if missing
+         */
+        public String getHeader(String name) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (header.getKey() != null && header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty()) {
+                    return header.getValue().get(0);
+                }
+            }
+            return null;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        @Override
+        public String toString() {
+            return status + " " + body;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import me.alb_i986.testing.assertions.retry.internal.TimeUtils;
+
+/**
+ * Verifies that an invariant holds <i>all the time</i> while a test runs, e.g. during a load test:
+ * samples the actual values in background, at a fixed rate, and records the first one
+ * which does not satisfy the matcher.
+ * <p>
+ * The verdict is given by {@link #verify()}, or by {@link #close()}, which also stops the sampling:
+ * <pre>
+ * try (InvariantMonitor&lt;Long&gt; errors = monitor("no errors", errorCount, is(0L), 100, TimeUnit.MILLISECONDS)) {
+ *     runLoadTest();
+ * } // throws if the error count was ever not 0
+ * </pre>
+ * Sampling runs on a dedicated daemon thread, and keeps no history but the first violation,
+ * hence its overhead is limited to the cost of the supplier and of the matcher.
+ * A supplier (or matcher) throwing counts as a violation.
+ *
+ * @see me.alb_i986.testing.assertions.AssertRetry#monitor(String, Supplier, Matcher, long, TimeUnit)
+ */
+public class InvariantMonitor<T> implements AutoCloseable {
+
+    private final String failureExplanation;
+    private final Supplier<T> actualValuesSupplier;
+    private final Matcher<? super T> matcher;
+    private final ScheduledExecutorService scheduler;
+    private final long startTimeMillis = System.currentTimeMillis();
+    private final long startTimeNanos = System.nanoTime();
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicLong violations = new AtomicLong();
+    private final AtomicReference<Violation> firstViolation = new AtomicReference<>();
+
+    /**
+     * Creates a monitor, and starts sampling immediately.
+     *
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    public InvariantMonitor(String failureExplanation, Supplier<T> actualValuesSupplier,
+                            Matcher<? super T> matcher, long period, TimeUnit timeUnit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        this.failureExplanation = failureExplanation;
+        this.actualValuesSupplier = actualValuesSupplier;
+        this.matcher = matcher;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "assert-retry invariant monitor");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                sample();
+            }
+        }, 0, period, timeUnit);
+    }
+
+    private void sample() {
+        long sample = samples.incrementAndGet();
+        Object actual;
+        try {
+            T value = actualValuesSupplier.get();
+            if (matcher.matches(value)) {
+                return;
+            }
+            actual = value;
+        } catch (Throwable e) { // whatever it is, or the scheduler would silently stop sampling
+            actual = e;
+        }
+        violations.incrementAndGet();
+        firstViolation.compareAndSet(null, new Violation(actual, sample,
+                System.currentTimeMillis(), System.nanoTime() - startTimeNanos));
+    }
+
+    /**
+     * @return true if no sample so far violated the invariant
+     */
+    public boolean isHolding() {
+        return firstViolation.get() == null;
+    }
+
+    public long getSamples() {
+        return samples.get();
+    }
+
+    /**
+     * Checks the samples taken so far. Sampling goes on.
+     *
+     * @throws AssertionError if any sample violated the invariant, describing the first violation
+     */
+    public void verify() {
+        Violation violation = firstViolation.get();
+        if (violation == null) {
+            return;
+        }
+        Description description = new StringDescription()
+                .appendText(String.format("Invariant violated %d/%d times (%s): ", violations.get(), samples.get(),
+                        TimeUtils.prettyPrint(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNanos))))
+                .appendText(failureExplanation.trim())
+                .appendText("\n    Expected: always ")
+                .appendDescriptionOf(matcher)
+                .appendText(String.format("\n    First violation: sample #%d at %s (%s after the start):\n         - ",
+                        violation.sample, new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ").format(new Date(violation.timestampMillis)),
+                        TimeUtils.prettyPrint(TimeUnit.NANOSECONDS.toMillis(violation.elapsedNanos))));
+        if (violation.actual instanceof Throwable) {
+            description.appendText("the supplier of actual values failed: " + violation.actual);
+            throw new AssertionError(description.toString(), (Throwable) violation.actual);
+        }
+        description.appendValue(violation.actual);
+        throw new AssertionError(description.toString());
+    }
+
+    /**
+     * Stops sampling, waiting for the current sample (if any) to complete, and then {@link #verify() verifies}.
+     *
+     * @throws AssertionError if any sample violated the invariant
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown(); // not interrupting the current sample, which would be a violation
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        verify();
+    }
+
+    @Override
+    public String toString() {
+        return "monitor of " + StringDescription.toString(matcher) + ", started at " + new Date(startTimeMillis);
+    }
+
+    private static class Violation {
+        private final Object actual;
+        private final long sample;
+        private final long timestampMillis;
+        private final long elapsedNanos;
+
+        Violation(Object actual, long sample, long timestampMillis, long elapsedNanos) {
+            this.actual = actual;
+            this.sample = sample;
+            this.timestampMillis = timestampMillis;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+}
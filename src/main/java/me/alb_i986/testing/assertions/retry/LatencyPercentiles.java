@@ -0,0 +1,136 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.SelfDescribing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The expected latency of an operation, in terms of percentiles, for
+ * {@link me.alb_i986.testing.assertions.AssertRetry#assertLatency(String, Supplier, LatencyPercentiles, RetryConfigBuilder)}.
+ * Example:
+ * <pre>
+ * latencyPercentiles()
+ *     .warmup(100)
+ *     .percentile(50, lessThan(5.0), TimeUnit.MILLISECONDS)
+ *     .percentile(99, lessThan(50.0), TimeUnit.MILLISECONDS)
+ * </pre>
+ * The matchers are applied to the measured percentiles, expressed in the given time unit.
+ */
+public class LatencyPercentiles implements SelfDescribing {
+
+    private final List<Expectation> expectations = new ArrayList<>();
+    private int warmupCalls;
+
+    /**
+     * @deprecated end users should rather rely on {@link me.alb_i986.testing.assertions.AssertRetry#latencyPercentiles()}.
+     */
+    @Deprecated // to give a hint to end users about the correct usage of our API
+    public LatencyPercentiles() {
+    }
+
+    /**
+     * How many times to invoke the operation before starting to measure it, e.g. to let the JIT kick in.
+     * None by default.
+     *
+     * @throws IllegalArgumentException if warmupCalls is negative
+     */
+    public LatencyPercentiles warmup(int warmupCalls) {
+        if (warmupCalls < 0) {
+            throw new IllegalArgumentException("warmupCalls < 0");
+        }
+        this.warmupCalls = warmupCalls;
+        return this;
+    }
+
+    /**
+     * Adds an expectation on a percentile of the latency.
+     *
+     * @param percentile e.g. 50 for the median, 99.9 for the 999th permille
+     * @param matcher the expected value of the percentile, expressed in {@code timeUnit}
+     * @throws IllegalArgumentException if the percentile is not in (0, 100], or in case of null arguments
+     */
+    public LatencyPercentiles percentile(double percentile, Matcher<? super Double> matcher, TimeUnit timeUnit) {
+        if (!(percentile > 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("percentile must be in (0, 100]");
+        }
+        if (matcher == null || timeUnit == null) {
+            throw new IllegalArgumentException("null matcher or timeUnit");
+        }
+        expectations.add(new Expectation(percentile, matcher, timeUnit));
+        return this;
+    }
+
+    public int getWarmupCalls() {
+        return warmupCalls;
+    }
+
+    public List<Expectation> getExpectations() {
+        return Collections.unmodifiableList(expectations);
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendList("", ", ", "", expectations);
+    }
+
+    /**
+     * An expectation on a single percentile.
+     */
+    public static class Expectation implements SelfDescribing {
+
+        private final double percentile;
+        private final Matcher<? super Double> matcher;
+        private final TimeUnit timeUnit;
+
+        Expectation(double percentile, Matcher<? super Double> matcher, TimeUnit timeUnit) {
+            this.percentile = percentile;
+            this.matcher = matcher;
+            this.timeUnit = timeUnit;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public TimeUnit getTimeUnit() {
+            return timeUnit;
+        }
+
+        /**
+         * @param nanos the measured value of the percentile
+         */
+        public boolean matches(long nanos) {
+            return matcher.matches(toUnit(nanos));
+        }
+
+        public double toUnit(long nanos) {
+            return nanos / (double) timeUnit.toNanos(1);
+        }
+
+        public String getName() {
+            return percentile == Math.rint(percentile) ? "p" + (long) percentile : "p" + percentile;
+        }
+
+        public String getUnitSymbol() {
+            switch (timeUnit) {
+                case NANOSECONDS: return "ns";
+                case MICROSECONDS: return "us";
+                case MILLISECONDS: return "ms";
+                case SECONDS: return "s";
+                case MINUTES: return "min";
+                case HOURS: return "h";
+                default: return "d";
+            }
+        }
+
+        @Override
+        public void describeTo(Description description) {
+            description.appendText(getName() + " ").appendDescriptionOf(matcher).appendText(" " + getUnitSymbol());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package me.alb_i986.testing.assertions.retry;
+
+/**
+ * Specialization of {@link Supplier} for {@code long} values, avoiding boxing.
+ */
+public interface LongSupplier {
+
+    long getAsLong() throws Exception;
+}
@@ -0,0 +1,269 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.hamcrest.Description;
+
+/**
+ * Factory methods of {@link IntPredicate}s, {@link LongPredicate}s and {@link DoublePredicate}s,
+ * to be used with the primitive retry assertions, e.g.
+ * {@link me.alb_i986.testing.assertions.AssertRetry#assertThatLong(LongSupplier, LongPredicate)}.
+ * <p>
+ * They are named and described after their Hamcrest counterparts,
+ * so that the failure messages read the same.
+ * The int predicates are prefixed with {@code int}, e.g. {@link #intLessThan(int)},
+ * so that an int literal passed to e.g. {@link #lessThan(long)} still makes a {@link LongPredicate}.
+ */
+public class NumericPredicates {
+
+    protected NumericPredicates() {
+        // static class
+    }
+
+    public static IntPredicate intEqualTo(final int expected) {
+        return new IntPredicate() {
+            @Override
+            public boolean test(int value) {
+                return value == expected;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendValue(expected);
+            }
+        };
+    }
+
+    public static IntPredicate intGreaterThan(final int bound) {
+        return new IntPredicate() {
+            @Override
+            public boolean test(int value) {
+                return value > bound;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a value greater than ").appendValue(bound);
+            }
+        };
+    }
+
+    public static IntPredicate intGreaterThanOrEqualTo(final int bound) {
+        return new IntPredicate() {
+            @Override
+            public boolean test(int value) {
+                return value >= bound;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a value equal to or greater than ").appendValue(bound);
+            }
+        };
+    }
+
+    public static IntPredicate intLessThan(final int bound) {
+        return new IntPredicate() {
+            @Override
+            public boolean test(int value) {
+                return value < bound;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a value less than ").appendValue(bound);
+            }
+        };
+    }
+
+    public static IntPredicate intLessThanOrEqualTo(final int bound) {
+        return new IntPredicate() {
+            @Override
+            public boolean test(int value) {
+                return value <= bound;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a value less than or equal to ").appendValue(bound);
+            }
+        };
+    }
+
+    /**
+     * @return a predicate matching the values in the range [min, max], bounds included
+     * @throws IllegalArgumentException if min > max
+     */
+    public static IntPredicate intBetween(final int min, final int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min > max");
+        }
+        return new IntPredicate() {
+            @Override
+            public boolean test(int value) {
+                return value >= min && value <= max;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a value between ").appendValue(min)
+                        .appendText(" and ").appendValue(max);
+            }
+        };
+    }
+
+    public static LongPredicate equalTo(final long expected) {
+        return new LongPredicate() {
+            @Override
+            public boolean test(long value) {
+                return value == expected;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendValue(expected);
+            }
+        };
+    }
+
+    public static LongPredicate greaterThan(final long bound) {
+        return new LongPredicate() {
+            @Override
+            public boolean test(long value) {
+                return value > bound;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a value greater than ").appendValue(bound);
+            }
+        };
+    }
+
+    public static LongPredicate greaterThanOrEqualTo(final long bound) {
+        return new LongPredicate() {
+            @Override
+            public boolean test(long value) {
+                return value >= bound;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a value equal to or greater than ").appendValue(bound);
+            }
+        };
+    }
+
+    public static LongPredicate lessThan(final long bound) {
+        return new LongPredicate() {
+            @Override
+            public boolean test(long value) {
+                return value < bound;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a value less than ").appendValue(bound);
+            }
+        };
+    }
+
+    public static LongPredicate lessThanOrEqualTo(final long bound) {
+        return new LongPredicate() {
+            @Override
+            public boolean test(long value) {
+                return value <= bound;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a value less than or equal to ").appendValue(bound);
+            }
+        };
+    }
+
+    /**
+     * @return a predicate matching the values in the range [min, max], bounds included
+     * @throws IllegalArgumentException if min > max
+     */
+    public static LongPredicate between(final long min, final long max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min > max");
+        }
+        return new LongPredicate() {
+            @Override
+            public boolean test(long value) {
+                return value >= min && value <= max;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a value between ").appendValue(min)
+                        .appendText(" and ").appendValue(max);
+            }
+        };
+    }
+
+    public static DoublePredicate greaterThan(final double bound) {
+        return new DoublePredicate() {
+            @Override
+            public boolean test(double value) {
+                return value > bound;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a value greater than ").appendValue(bound);
+            }
+        };
+    }
+
+    public static DoublePredicate lessThan(final double bound) {
+        return new DoublePredicate() {
+            @Override
+            public boolean test(double value) {
+                return value < bound;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a value less than ").appendValue(bound);
+            }
+        };
+    }
+
+    /**
+     * @return a predicate matching the values in the range [min, max], bounds included
+     * @throws IllegalArgumentException if min > max
+     */
+    public static DoublePredicate between(final double min, final double max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min > max");
+        }
+        return new DoublePredicate() {
+            @Override
+            public boolean test(double value) {
+                return value >= min && value <= max;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a value between ").appendValue(min)
+                        .appendText(" and ").appendValue(max);
+            }
+        };
+    }
+
+    public static DoublePredicate closeTo(final double expected, final double error) {
+        return new DoublePredicate() {
+            @Override
+            public boolean test(double value) {
+                return Math.abs(value - expected) <= error;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a numeric value within ").appendValue(error)
+                        .appendText(" of ").appendValue(expected);
+            }
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package me.alb_i986.testing.assertions.retry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import me.alb_i986.testing.assertions.retry.internal.TimeUtils;
+
+/**
+ * A total amount of time that the retry assertions of a test may spend, e.g. so that a test with eight assertions,
+ * each one with a generous timeout, cannot run for eight times the intended limit.
+ * <p>
+ * Once started, a budget is bound to the current thread, and it is picked up by the retry assertions run by it:
+ * each assertion stops retrying as soon as either its own timeout expires or the budget is exhausted,
+ * whichever comes first. The budget is consumed only by the time spent in retry assertions.
+ * It can also be passed explicitly, via {@link RetryConfigBuilder#budget(RetryBudget)}.
+ * <p>
+ * The {@link #report() report} shows how much of the budget each assertion used.
+ * <p>
+ * Usually, a budget is managed by {@link RetryBudgetRule} (JUnit 4) or by {@link RetryBudgetExtension} (JUnit 5).
+ */
+public class RetryBudget extends RetryListener {
+
+    private static final ThreadLocal<RetryBudget> CURRENT = new ThreadLocal<>();
+
+    private final long budgetNanos;
+    private RetryBudget previous;
+    private final Map<Integer, Long> startNanosByRun = new ConcurrentHashMap<>();
+    private final List<String> usages = new ArrayList<>();
+    private long usedNanos;
+
+    protected RetryBudget(long budget, TimeUnit timeUnit) {
+        this.budgetNanos = timeUnit.toNanos(budget);
+    }
+
+    /**
+     * Starts a new budget and binds it to the current thread, replacing the current one, if any,
+     * until {@link #close() closed}.
+     *
+     * @throws IllegalArgumentException if budget is not positive, or if timeUnit is null
+     */
+    public static RetryBudget start(long budget, TimeUnit timeUnit) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("budget must be positive");
+        }
+        if (timeUnit == null) {
+            throw new IllegalArgumentException("timeUnit is null");
+        }
+        RetryBudget retryBudget = new RetryBudget(budget, timeUnit);
+        retryBudget.previous = CURRENT.get();
+        CURRENT.set(retryBudget);
+        return retryBudget;
+    }
+
+    /**
+     * @return the budget bound to the current thread; null if none
+     */
+    public static RetryBudget current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Unbinds this budget from the current thread, binding again the budget it replaced, if any.
+     * Does nothing if this budget is not the one bound to the current thread.
+     */
+    public void close() {
+        if (CURRENT.get() != this) {
+            return;
+        }
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+            previous = null;
+        }
+    }
+
+    /**
+     * @return the time left, including the time being spent by the assertions in progress; may be negative
+     */
+    public synchronized long getRemainingTimeNanos() {
+        long now = System.nanoTime();
+        long remaining = budgetNanos - usedNanos;
+        for (long startNanos : startNanosByRun.values()) {
+            remaining -= now - startNanos;
+        }
+        return remaining;
+    }
+
+    public boolean isExhausted() {
+        return getRemainingTimeNanos() <= 0;
+    }
+
+    public synchronized long getUsedTimeNanos() {
+        return budgetNanos - getRemainingTimeNanos();
+    }
+
+    @Override
+    public void runStarted(RetryRun run) {
+        startNanosByRun.put(run.getId(), System.nanoTime());
+    }
+
+    @Override
+    public synchronized void runCompleted(RetryRun run, boolean passed) {
+        Long startNanos = startNanosByRun.remove(run.getId());
+        if (startNanos == null) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        usedNanos += elapsedNanos;
+        String explanation = run.getFailureExplanation().trim();
+        usages.add(String.format("%5.1f%% %s (%s): %s%s", elapsedNanos * 100.0 / budgetNanos,
+                TimeUtils.prettyPrint(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)), passed ? "passed" : "failed",
+                explanation.isEmpty() ? "" : "\"" + explanation + "\" ", run.describeExpectation()));
+    }
+
+    /**
+     * @return how much of the budget was used, in total and by each assertion completed so far, in order of execution
+     */
+    public synchronized String report() {
+        StringBuilder report = new StringBuilder(String.format("Retry budget: %s of %s used",
+                TimeUtils.prettyPrint(TimeUnit.NANOSECONDS.toMillis(Math.min(usedNanos, budgetNanos))),
+                TimeUtils.prettyPrint(TimeUnit.NANOSECONDS.toMillis(budgetNanos))));
+        for (String usage : usages) {
+            report.append("\n  ").append(usage);
+        }
+        return report.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "retry budget of " + TimeUtils.prettyPrint(TimeUnit.NANOSECONDS.toMillis(budgetNanos));
+    }
+}
@@ -0,0 +1,63 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import me.alb_i986.testing.assertions.AssertRetry;
+
+/**
+ * JUnit 5 extension giving each test a {@link RetryBudget}, i.e. a total amount of time for all of its retry assertions:
+ * <pre>
+ * &#64;RegisterExtension
+ * RetryBudgetExtension retryBudget = new RetryBudgetExtension(30, TimeUnit.SECONDS);
+ * </pre>
+ * The budget is bound to the thread running the test, and its report is logged when the test completes.
+ * <p>
+ * Requires the JUnit Jupiter API on the classpath.
+ *
+ * @see RetryBudgetRule
+ */
+public class RetryBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final Logger LOG = Logger.getLogger(AssertRetry.class.getName());
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(RetryBudgetExtension.class);
+
+    private final long budget;
+    private final TimeUnit timeUnit;
+
+    /**
+     * @throws IllegalArgumentException if budget is not positive, or if timeUnit is null
+     */
+    public RetryBudgetExtension(long budget, TimeUnit timeUnit) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("budget must be positive");
+        }
+        if (timeUnit == null) {
+            throw new IllegalArgumentException("timeUnit is null");
+        }
+        this.budget = budget;
+        this.timeUnit = timeUnit;
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(RetryBudget.class, RetryBudget.start(budget, timeUnit));
+    }
+
+    /**
+     * Closes the budget started by {@link #beforeEach(ExtensionContext)}, binding again the previous one, if any.
+     */
+    @Override
+    public void afterEach(ExtensionContext context) {
+        RetryBudget testBudget = context.getStore(NAMESPACE).remove(RetryBudget.class, RetryBudget.class);
+        if (testBudget != null) {
+            testBudget.close();
+            LOG.info(context.getDisplayName() + ". " + testBudget.report());
+        }
+    }
+}
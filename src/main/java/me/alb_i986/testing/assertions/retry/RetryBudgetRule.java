@@ -0,0 +1,68 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import me.alb_i986.testing.assertions.AssertRetry;
+
+/**
+ * JUnit 4 rule giving each test a {@link RetryBudget}, i.e. a total amount of time for all of its retry assertions:
+ * <pre>
+ * &#64;Rule
+ * public RetryBudgetRule retryBudget = new RetryBudgetRule(30, TimeUnit.SECONDS);
+ * </pre>
+ * The budget is bound to the thread running the test, and its report is logged when the test completes.
+ * <p>
+ * Requires JUnit 4 on the classpath.
+ *
+ * @see RetryBudgetExtension
+ */
+public class RetryBudgetRule implements TestRule {
+
+    private static final Logger LOG = Logger.getLogger(AssertRetry.class.getName());
+
+    private final long budget;
+    private final TimeUnit timeUnit;
+    private RetryBudget currentBudget;
+
+    /**
+     * @throws IllegalArgumentException if budget is not positive, or if timeUnit is null
+     */
+    public RetryBudgetRule(long budget, TimeUnit timeUnit) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("budget must be positive");
+        }
+        if (timeUnit == null) {
+            throw new IllegalArgumentException("timeUnit is null");
+        }
+        this.budget = budget;
+        this.timeUnit = timeUnit;
+    }
+
+    @Override
+    public Statement apply(final Statement base, final Description description) {
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                currentBudget = RetryBudget.start(budget, timeUnit);
+                try {
+                    base.evaluate();
+                } finally {
+                    currentBudget.close();
+                    LOG.info(description.getDisplayName() + ". " + currentBudget.report());
+                }
+            }
+        };
+    }
+
+    /**
+     * @return the budget of the test running, or of the last test run
+     */
+    public RetryBudget getBudget() {
+        return currentBudget;
+    }
+}
@@ -1,10 +1,17 @@
 package me.alb_i986.testing.assertions.retry;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import me.alb_i986.testing.assertions.AssertRetry;
+import me.alb_i986.testing.assertions.retry.internal.FlightRecorderSupport;
 import me.alb_i986.testing.assertions.retry.internal.RetryConfig;
+import me.alb_i986.testing.assertions.retry.internal.RetryProfiler;
 import me.alb_i986.testing.assertions.retry.internal.Timeout;
+import me.alb_i986.testing.assertions.retry.internal.TimingProfiles;
+import me.alb_i986.testing.assertions.retry.internal.TraceRecorder;
 import me.alb_i986.testing.assertions.retry.internal.WaitStrategies;
 
 /**
@@ -21,6 +28,10 @@ public class RetryConfigBuilder {
     private Boolean retryOnException;
     private Integer maxAttempts;
     private Timeout timeout;
+    private final List<RetryListener> listeners = new ArrayList<>();
+    private CircuitBreaker circuitBreaker;
+    private RetryBudget budget;
+    private String profile;
 
     /**
      * @deprecated end users should rather rely on {@link AssertRetry#configureRetry()}.
@@ -104,23 +115,168 @@ public class RetryConfigBuilder {
         return this;
     }
 
+    /**
+     * Takes the values of the parameters not explicitly set from the given timing profile,
+     * rather than from the {@link DefaultValues}.
+     * <p>
+     * Timing profiles let the same suite poll tightly on a fast local machine and wait longer on a shared CI agent,
+     * without recompiling. They are loaded once, from the file {@code assert-retry.properties} in the root
+     * of the classpath, if any, and from the system properties, which take precedence, e.g.
+     * <pre>
+     * assertretry.profile.local.sleep=100ms
+     * assertretry.profile.local.maxAttempts=50
+     * assertretry.profile.local.timeout=5s
+     * assertretry.profile.ci.sleep=1s
+     * assertretry.profile.ci.maxAttempts=60
+     * assertretry.profile.ci.timeout=1m
+     *
+     * # optional: the profile applied when none is specified
+     * assertretry.defaultProfile=local
+     * # optional: scales the times of the profiles, the timeouts set explicitly, and the default sleep
+     * assertretry.timeMultiplier=1.0
+     * </pre>
+     * Any of the settings of a profile may be omitted, in which case the default value applies.
+     * The time multiplier applies to every assertion, whether it uses a profile or not.
+     * It does not scale the wait strategies set explicitly, including {@link #sleepBetweenAttempts(long, TimeUnit)},
+     * and there is still no timeout by default.
+     * Durations are in the format "1m 30s", "500ms", etc.
+     * The resolved values of each assertion are logged at FINE level.
+     *
+     * @throws IllegalArgumentException if no profile with the given name exists
+     * @throws IllegalStateException if the timing profiles are not configured correctly
+     */
+    public RetryConfigBuilder profile(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("null profile");
+        }
+        TimingProfiles.getInstance().getProfile(name);
+        this.profile = name;
+        return this;
+    }
+
+    /**
+     * Registers a listener to be notified about the progress of the assertion.
+     * May be invoked multiple times: listeners are notified in order of registration.
+     *
+     * @throws IllegalArgumentException in case of a null argument
+     */
+    public RetryConfigBuilder listener(RetryListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("null listener");
+        }
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Guards the supplier of actual values with the given circuit breaker, shared with the other assertions using it:
+     * when the circuit is open, the assertion fails immediately, rather than retrying until the timeout expires.
+     * Ignored by the assertions on a {@link org.reactivestreams.Publisher} and by the latency assertions.
+     *
+     * @throws IllegalArgumentException in case of a null argument
+     * @see CircuitBreaker#named(String, int, long, TimeUnit)
+     */
+    public RetryConfigBuilder circuitBreaker(CircuitBreaker circuitBreaker) {
+        if (circuitBreaker == null) {
+            throw new IllegalArgumentException("null circuit breaker");
+        }
+        this.circuitBreaker = circuitBreaker;
+        return this;
+    }
+
+    /**
+     * Handy overloaded version of {@link #circuitBreaker(CircuitBreaker)},
+     * using the circuit breaker with the given name, created with the default settings if needed.
+     *
+     * @see CircuitBreaker#named(String)
+     */
+    public RetryConfigBuilder circuitBreaker(String name) {
+        return circuitBreaker(CircuitBreaker.named(name));
+    }
+
+    /**
+     * Limits the time spent by the assertion to the given budget, on top of the timeout, whichever comes first.
+     * The assertion's time is charged to the budget.
+     * <p>
+     * If not set, the budget bound to the current thread is used, if any.
+     *
+     * @throws IllegalArgumentException in case of a null argument
+     * @see RetryBudget#start(long, TimeUnit)
+     */
+    public RetryConfigBuilder budget(RetryBudget budget) {
+        if (budget == null) {
+            throw new IllegalArgumentException("null budget");
+        }
+        this.budget = budget;
+        return this;
+    }
+
+    /**
+     * Records each attempt to the given binary trace file, which can be analyzed offline
+     * with {@link me.alb_i986.testing.assertions.retry.internal.TraceReader}.
+     * The file is appended to, so that it can collect the attempts of several assertions.
+     *
+     * @throws IllegalArgumentException in case of a null argument
+     */
+    public RetryConfigBuilder recordTraceTo(File traceFile) {
+        if (traceFile == null) {
+            throw new IllegalArgumentException("null trace file");
+        }
+        return listener(TraceRecorder.forFile(traceFile));
+    }
+
     /**
      * Creates and returns an instance of {@link RetryConfig},
      * configured according to the previous calls to the setter methods.
-     * In case a parameter has not been explicitly set, it will be set to its default value,
-     * as defined in {@link DefaultValues}.
+     * In case a parameter has not been explicitly set, it will be set to the value of the {@link #profile(String)
+     * timing profile}, if any, or of the default profile, if configured; otherwise, to its default value,
+     * as defined in {@link DefaultValues}. The timeout set explicitly and the default sleep are scaled by the time multiplier,
+     * if configured. An invalid configuration of the timing profiles is ignored, unless a profile is resolved.
+     * If the {@link RetryProfiler} is enabled, it is registered after the listeners explicitly added,
+     * followed by the JFR listener, if {@link FlightRecorderSupport available} and a recording has its events enabled.
+     * The {@link RetryBudget}, either explicitly set or bound to the current thread, is registered last.
      *
      * @return a configured instance of {@link RetryConfig}
+     * @throws IllegalStateException if either a profile or a default profile is set,
+     *                               and the timing profiles are not configured correctly
+     * @see TimingProfiles
      */
     public RetryConfig build() {
+        TimingProfiles timingProfiles = this.profile != null || TimingProfiles.isDefaultProfileConfigured() ?
+                TimingProfiles.getInstance() : TimingProfiles.getInstanceIfValid();
+        TimingProfiles.Profile profile = timingProfiles == null ? null
+                : this.profile == null ? timingProfiles.getDefaultProfile()
+                : timingProfiles.getProfile(this.profile);
+        double timeMultiplier = timingProfiles == null ? 1 : timingProfiles.getTimeMultiplier();
 
-        //TODO let end users override our default values in a properties file of their own
-
-        Runnable waitStrategy = this.waitStrategy == null ? DefaultValues.WAIT_STRATEGY : this.waitStrategy;
+        boolean waitStrategyConfigured = this.waitStrategy != null
+                || profile != null && profile.getSleepMillis() != null;
+        Runnable waitStrategy = this.waitStrategy != null ? this.waitStrategy
+                : profile != null && profile.getSleepMillis() != null ?
+                        WaitStrategies.sleep(profile.getSleepMillis(), TimeUnit.MILLISECONDS)
+                : timingProfiles == null ? DefaultValues.WAIT_STRATEGY
+                : timingProfiles.getDefaultWaitStrategy();
         boolean retryOnException = this.retryOnException == null ? DefaultValues.RETRY_ON_EXCEPTION : this.retryOnException;
-        int maxAttempts = this.maxAttempts == null ? DefaultValues.MAX_ATTEMPTS : this.maxAttempts;
-        Timeout timeout = this.timeout == null ? DefaultValues.TIMEOUT : this.timeout;
-        return new RetryConfig(maxAttempts, waitStrategy, retryOnException, timeout);
+        int maxAttempts = this.maxAttempts != null ? this.maxAttempts
+                : profile != null && profile.getMaxAttempts() != null ? profile.getMaxAttempts()
+                : DefaultValues.MAX_ATTEMPTS;
+        Timeout timeout = this.timeout != null ? (timeMultiplier == 1 ? this.timeout : this.timeout.scale(timeMultiplier))
+                : profile != null && profile.getTimeoutMillis() != null ?
+                        new Timeout(profile.getTimeoutMillis(), TimeUnit.MILLISECONDS)
+                : DefaultValues.TIMEOUT;
+        List<RetryListener> listeners = new ArrayList<>(this.listeners);
+        if (RetryProfiler.getInstance() != null) {
+            listeners.add(RetryProfiler.getInstance());
+        }
+        if (FlightRecorderSupport.getListener() != null) {
+            listeners.add(FlightRecorderSupport.getListener());
+        }
+        RetryBudget budget = this.budget == null ? RetryBudget.current() : this.budget;
+        if (budget != null) {
+            listeners.add(budget);
+        }
+        return new RetryConfig(maxAttempts, waitStrategy, waitStrategyConfigured, retryOnException, timeout,
+                listeners, circuitBreaker, budget);
     }
 
     /**
@@ -157,6 +313,11 @@ public class RetryConfigBuilder {
             public boolean isExpired() {
                 return false;
             }
+
+            @Override
+            public String toString() {
+                return "none";
+            }
         };
 
         private DefaultValues() {}
@@ -0,0 +1,51 @@
+package me.alb_i986.testing.assertions.retry;
+
+/**
+ * Receives notifications about the progress of retry assertions.
+ * <p>
+ * All of the methods do nothing by default: subclasses override only the events they care about.
+ * Listeners are invoked synchronously by the thread running the assertion,
+ * hence they should return quickly. They may be shared among concurrent assertions,
+ * in which case they must be thread safe.
+ *
+ * @see RetryConfigBuilder#listener(RetryListener)
+ */
+public class RetryListener {
+
+    /**
+     * Invoked before the first attempt.
+     */
+    public void runStarted(RetryRun run) {
+    }
+
+    /**
+     * Invoked after each attempt, i.e. after the supplier has been invoked and,
+     * if it did not fail, its value has been checked.
+     *
+     * @param attempt the number of the attempt, starting from 1
+     * @param supplierNanos how long the supplier took to return (or to fail)
+     * @param actualValue the supplied value; null if the supplier failed
+     * @param supplierFailure the exception thrown by the supplier, if any; null otherwise
+     * @param matched whether the actual value satisfied the expectation;
+     *                null if not applicable, i.e. if the supplier failed, or for a latency assertion,
+     *                whose invocations are measured, not checked one by one:
+     *                its outcome is known only once the run is {@link #runCompleted(RetryRun, boolean) completed}
+     */
+    public void attemptCompleted(RetryRun run, int attempt, long supplierNanos,
+                                 Object actualValue, Throwable supplierFailure, Boolean matched) {
+    }
+
+    /**
+     * Invoked after the wait strategy has returned, before the next attempt.
+     *
+     * @param attempt the number of the attempt which preceded the wait
+     */
+    public void waitCompleted(RetryRun run, int attempt, long waitNanos) {
+    }
+
+    /**
+     * Invoked once the assertion has passed or failed.
+     */
+    public void runCompleted(RetryRun run, boolean passed) {
+    }
+}
@@ -0,0 +1,75 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.hamcrest.SelfDescribing;
+import org.hamcrest.StringDescription;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A single execution of a retry assertion, from the first attempt to the final outcome.
+ * <p>
+ * Handed over to each {@link RetryListener} callback, so that listeners can tell
+ * the events of concurrent assertions apart.
+ */
+public class RetryRun {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final int id;
+    private final String failureExplanation;
+    private final SelfDescribing expectation;
+    private final int maxAttempts;
+    private final long startTimeMillis;
+    private final long startTimeNanos;
+
+    public RetryRun(String failureExplanation, SelfDescribing expectation, int maxAttempts) {
+        this.id = SEQUENCE.incrementAndGet();
+        this.failureExplanation = failureExplanation;
+        this.expectation = expectation;
+        this.maxAttempts = maxAttempts;
+        this.startTimeMillis = System.currentTimeMillis();
+        this.startTimeNanos = System.nanoTime();
+    }
+
+    /**
+     * @return an identifier which is unique within the running JVM
+     */
+    public int getId() {
+        return id;
+    }
+
+    public String getFailureExplanation() {
+        return failureExplanation;
+    }
+
+    /**
+     * @return the matcher (or, more in general, the condition) the actual values are checked against
+     */
+    public SelfDescribing getExpectation() {
+        return expectation;
+    }
+
+    public String describeExpectation() {
+        return StringDescription.toString(expectation);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @return the wall-clock time when the run started, in milliseconds since the epoch
+     */
+    public long getStartTimeMillis() {
+        return startTimeMillis;
+    }
+
+    public long getElapsedTimeNanos() {
+        return System.nanoTime() - startTimeNanos;
+    }
+
+    public long getElapsedTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(getElapsedTimeNanos());
+    }
+}
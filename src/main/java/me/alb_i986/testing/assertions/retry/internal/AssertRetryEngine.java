@@ -2,16 +2,30 @@ package me.alb_i986.testing.assertions.retry.internal;
 
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
-import org.hamcrest.MatcherAssert;
 import org.hamcrest.StringDescription;
+import org.reactivestreams.Publisher;
 
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import me.alb_i986.testing.assertions.AssertRetry;
+import me.alb_i986.testing.assertions.retry.BulkSupplier;
+import me.alb_i986.testing.assertions.retry.CircuitBreaker;
+import me.alb_i986.testing.assertions.retry.DoublePredicate;
+import me.alb_i986.testing.assertions.retry.DoubleSupplier;
+import me.alb_i986.testing.assertions.retry.IntPredicate;
+import me.alb_i986.testing.assertions.retry.IntSupplier;
+import me.alb_i986.testing.assertions.retry.LatencyPercentiles;
+import me.alb_i986.testing.assertions.retry.LongPredicate;
+import me.alb_i986.testing.assertions.retry.LongSupplier;
+import me.alb_i986.testing.assertions.retry.RetryListener;
+import me.alb_i986.testing.assertions.retry.RetryRun;
 import me.alb_i986.testing.assertions.retry.Supplier;
 
 /**
@@ -37,64 +51,414 @@ public class AssertRetryEngine {
     }
 
     public <T> T assertThat(String failureReason, Supplier<T> actualValuesSupplier, Matcher<? super T> matcher) {
+        ValuesProbe<T> probe = new ValuesProbe<>(actualValuesSupplier, matcher);
+        run(failureReason, probe);
+        return probe.getLastValue();
+    }
+
+    /**
+     * Retries until any of the given sources supplies a value satisfying the matcher.
+     * At each attempt, the sources are called concurrently, and the slower calls are cancelled
+     * as soon as one of them matches.
+     *
+     * @param sources the suppliers of actual values, by name
+     * @return the first actual value which satisfies the matcher
+     * @see FirstOfProbe
+     */
+    public <T> T assertThatAnyOf(String failureReason, Map<String, ? extends Supplier<? extends T>> sources,
+                                 Matcher<? super T> matcher) {
+        FirstOfProbe<T> probe = new FirstOfProbe<>(sources, matcher);
+        try {
+            run(failureReason, probe);
+            return probe.getLastValue();
+        } finally {
+            probe.close();
+        }
+    }
+
+    /**
+     * Retries until the value of each of the given keys satisfies the matcher.
+     * At each attempt, the bulk supplier is asked for the values of the keys still pending only.
+     *
+     * @see EachProbe
+     */
+    public <K, V> void assertEachEventually(String failureReason, Collection<K> keys,
+                                            BulkSupplier<K, V> bulkSupplier, Matcher<? super V> matcher) {
+        run(failureReason, new EachProbe<>(keys, bulkSupplier, matcher));
+    }
+
+    public int assertThatInt(String failureReason, IntSupplier actualValuesSupplier, IntPredicate predicate) {
+        IntProbe probe = new IntProbe(actualValuesSupplier, predicate, retryConfig.getMaxAttempts());
+        run(failureReason, probe);
+        return probe.getLastInt();
+    }
+
+    public long assertThatLong(String failureReason, LongSupplier actualValuesSupplier, LongPredicate predicate) {
+        LongProbe probe = new LongProbe(actualValuesSupplier, predicate, retryConfig.getMaxAttempts());
+        run(failureReason, probe);
+        return probe.getLastLong();
+    }
+
+    public double assertThatDouble(String failureReason, DoubleSupplier actualValuesSupplier, DoublePredicate predicate) {
+        DoubleProbe probe = new DoubleProbe(actualValuesSupplier, predicate, retryConfig.getMaxAttempts());
+        run(failureReason, probe);
+        return probe.getLastDouble();
+    }
+
+    /**
+     * Samples the given monotonic counter at each attempt, until the rate at which it grows satisfies the matcher.
+     *
+     * @param window the number of most recent intervals to smooth the rate over; 1 means no smoothing
+     * @return the last rate computed, i.e. the first one which satisfies the matcher
+     * @see RateProbe
+     */
+    public double assertRate(String failureReason, LongSupplier counter, TimeUnit rateUnit, int window,
+                             Matcher<? super Double> matcher) {
+        RateProbe probe = new RateProbe(counter, matcher, rateUnit, window);
+        run(failureReason, probe);
+        return probe.getLastValue();
+    }
+
+    /**
+     * Checks that all of the given endpoints accept TCP connections, eventually,
+     * with the {@link ReadinessProbe#DEFAULT_CONNECT_TIMEOUT_MILLIS default connect timeout}.
+     *
+     * @see ReadinessProbe
+     */
+    public void assertListening(String failureReason, Collection<InetSocketAddress> endpoints) {
+        assertListening(failureReason, endpoints, ReadinessProbe.DEFAULT_CONNECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Checks that all of the given endpoints accept TCP connections, eventually.
+     * Each connect times out after the given time, or as soon as the assertion times out, whichever comes first.
+     *
+     * @throws IllegalArgumentException if the connect timeout is not positive
+     * @see ReadinessProbe
+     */
+    public void assertListening(String failureReason, Collection<InetSocketAddress> endpoints,
+                                long connectTimeout, TimeUnit connectTimeoutUnit) {
+        if (connectTimeout <= 0) {
+            throw new IllegalArgumentException("connectTimeout should be > 0");
+        }
+        run(failureReason, new ReadinessProbe(endpoints, connectTimeoutUnit.toNanos(connectTimeout),
+                retryConfig.getTimeout()));
+    }
+
+    /**
+     * Subscribes to the given publisher and checks each item against the matcher as soon as it is published,
+     * until one matches, or until the max attempts (i.e. items) or the timeout are reached.
+     * The wait strategy is not used: items are pushed, not polled.
+     * The subscription is cancelled in any case before returning.
+     *
+     * @return the first item which satisfies the matcher
+     * @throws RetryAssertionError if no item satisfied the matcher, or if the publisher failed
+     */
+    public <T> T assertThat(String failureReason, Publisher<T> publisher, Matcher<? super T> matcher) {
         int i;
-        List<T> suppliedValues = new ArrayList<>();
+        List<T> items = new ArrayList<>();
+        RetryListener listener = retryConfig.getListener();
+        RetryRun run = new RetryRun(failureReason, matcher, retryConfig.getMaxAttempts());
+        BufferingSubscriber<T> subscriber = new BufferingSubscriber<>();
 
         retryConfig.getTimeout().restart();
+        logConfig();
+        listener.runStarted(run);
+        boolean passed = false;
+        try {
+            publisher.subscribe(subscriber);
+            try {
+                for (i = 1; i <= retryConfig.getMaxAttempts(); i++) {
+                    T item;
+                    long waitStartNanos = System.nanoTime();
+                    try {
+                        item = subscriber.next(getRemainingTimeNanos(), TimeUnit.NANOSECONDS);
+                    } catch (BufferingSubscriber.PublisherCompletedException e) {
+                        failureReason = "The publisher completed. " + failureReason.trim();
+                        break;
+                    } catch (BufferingSubscriber.PublisherFailedException e) {
+                        listener.attemptCompleted(run, i, System.nanoTime() - waitStartNanos, null, e.getCause(), null);
+                        throw new RetryAssertionError(String.format("Assertion failed after %d/%d attempts: " +
+                                "the publisher of actual values failed", i, retryConfig.getMaxAttempts()), e.getCause());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failureReason = "Interrupted. " + failureReason.trim();
+                        break;
+                    }
+                    if (item == null) {
+                        failureReason = outOfTimeReason() + failureReason.trim();
+                        break;
+                    }
+                    items.add(item);
+                    boolean matched = matcher.matches(item);
+                    listener.attemptCompleted(run, i, System.nanoTime() - waitStartNanos, item, null, matched);
+                    if (matched) {
+                        passed = true;
+                        LOG.info("Assertion eventually passed: " + matcher);
+                        return item; // assertion PASSED!
+                    }
+                    LOG.log(Level.INFO, String.format("Assertion failed (%d/%d). Waiting for the next item.",
+                            i, retryConfig.getMaxAttempts()));
+                }
+            } finally {
+                subscriber.cancel();
+            }
 
-        for (i = 1; i <= retryConfig.getMaxAttempts(); i++) { // i starts from 1
-            if (i > 1) {
-                if (retryConfig.getTimeout().isExpired()) {
-                    failureReason = "Timeout reached. " + failureReason.trim();
-                    break;
+            // no item ever matched => throw
+
+            Description description = new StringDescription()
+                    .appendText(String.format("Assertion failed after %d/%d attempts ", items.size(), retryConfig.getMaxAttempts()) +
+                            "(" + TimeUtils.prettyPrint(retryConfig.getTimeout().getElapsedTimeMillis()) + "): ")
+                    .appendText(failureReason.trim())
+                    .appendText("\n    Expected: ")
+                    .appendDescriptionOf(matcher)
+                    .appendText("\n    Actual values (in order of appearance):");
+            for (T item : items) {
+                Probe.describeValue(description, item);
+            }
+            throw new RetryAssertionError(description.toString());
+        } finally {
+            listener.runCompleted(run, passed);
+        }
+    }
+
+    /**
+     * Invokes the given operation repeatedly, measuring how long each invocation takes,
+     * and then checks the percentiles of the latency.
+     * <p>
+     * First, the operation is invoked {@link LatencyPercentiles#getWarmupCalls()} times, without measuring it.
+     * Then it is invoked and measured max attempts times, or until the timeout expires.
+     * The wait strategy is run between the measured invocations only if explicitly configured, or set by a profile:
+     * the default one (sleeping for a second) is not.
+     * If the operation throws and retry on exception is disabled, the assertion fails immediately;
+     * otherwise the failed invocations are not measured.
+     *
+     * @throws RetryAssertionError if no invocation could be measured, or if any percentile is not as expected
+     */
+    public void assertLatency(String failureReason, Supplier<?> operation, LatencyPercentiles expected) {
+        int i;
+        int failedCalls = 0;
+        LatencyHistogram histogram = new LatencyHistogram();
+        RetryListener listener = retryConfig.getListener();
+        RetryRun run = new RetryRun(failureReason, expected, retryConfig.getMaxAttempts());
+        Runnable waitStrategy = retryConfig.isWaitStrategyConfigured() ? retryConfig.getWaitStrategy() : null;
+
+        retryConfig.getTimeout().restart();
+        logConfig();
+        listener.runStarted(run);
+        boolean passed = false;
+        try {
+            for (i = 1; i <= expected.getWarmupCalls() && !isOutOfTime(); i++) {
+                try {
+                    operation.get();
+                } catch (Exception | AssertionError e) {
+                    if (!retryConfig.isRetryOnException()) {
+                        throw new RetryAssertionError(String.format("Latency assertion failed after %d/%d warmup calls: " +
+                                "the operation failed", i, expected.getWarmupCalls()), e);
+                    }
                 }
-                retryConfig.getWaitStrategy().run(); // wait and then re-try
             }
 
-            T actual;
-            try {
-                actual = actualValuesSupplier.get();
-                suppliedValues.add(actual);
-            } catch (Exception | AssertionError e) {
-                if (!retryConfig.isRetryOnException()) {
-                    throw new RetryAssertionError(String.format("Assertion failed after %d/%d attempts: " +
-                            "the supplier of actual values failed", i, retryConfig.getMaxAttempts()), e);
+            for (i = 1; i <= retryConfig.getMaxAttempts(); i++) {
+                if (isOutOfTime()) {
+                    failureReason = outOfTimeReason() + failureReason.trim();
+                    break;
+                }
+                if (i > 1 && waitStrategy != null) {
+                    long waitStartNanos = System.nanoTime();
+                    waitStrategy.run();
+                    listener.waitCompleted(run, i - 1, System.nanoTime() - waitStartNanos);
                 }
+                long startNanos = System.nanoTime();
+                try {
+                    Object result = operation.get();
+                    long latencyNanos = System.nanoTime() - startNanos;
+                    histogram.record(latencyNanos);
+                    listener.attemptCompleted(run, i, latencyNanos, result, null, null);
+                } catch (Exception | AssertionError e) {
+                    listener.attemptCompleted(run, i, System.nanoTime() - startNanos, null, e, null);
+                    if (!retryConfig.isRetryOnException()) {
+                        throw new RetryAssertionError(String.format("Latency assertion failed after %d/%d calls: " +
+                                "the operation failed", i, retryConfig.getMaxAttempts()), e);
+                    }
+                    failedCalls++;
+                }
+            }
 
-                // TODO configurable type of exception to retry on
-//                if (!retryConfig.getRetryException().isAssignableFrom(e.getClass())) {
-//                    throw e;
-//                }
-                LOG.log(Level.INFO, String.format("Supplier of actual values failed (%d/%d). Waiting before trying again: %s.",
-                        i, retryConfig.getMaxAttempts(), retryConfig.getWaitStrategy()), e);
-                continue;
+            List<LatencyPercentiles.Expectation> unmet = new ArrayList<>();
+            for (LatencyPercentiles.Expectation expectation : expected.getExpectations()) {
+                if (!expectation.matches(histogram.getValueAtPercentile(expectation.getPercentile()))) {
+                    unmet.add(expectation);
+                }
             }
-            try {
-                MatcherAssert.assertThat(actual, matcher);
-                LOG.info("Assertion eventually passed: " + matcher);
-                return actual; // assertion PASSED!
-            } catch (AssertionError e) {
-                LOG.log(Level.INFO, String.format("Assertion failed (%d/%d). Waiting before trying again: %s. %s",
-                        i, retryConfig.getMaxAttempts(), retryConfig.getWaitStrategy(), e.toString()));
+            if (histogram.getCount() > 0 && unmet.isEmpty()) {
+                passed = true;
+                LOG.info("Latency assertion passed: " + StringDescription.toString(expected));
+                return;
             }
+
+            Description description = new StringDescription()
+                    .appendText(String.format("Latency assertion failed after %d/%d calls ", i - 1, retryConfig.getMaxAttempts()) +
+                            "(" + TimeUtils.prettyPrint(retryConfig.getTimeout().getElapsedTimeMillis()) + "): ")
+                    .appendText(failureReason.trim())
+                    .appendText("\n    Expected: ")
+                    .appendDescriptionOf(expected)
+                    .appendText(String.format("\n    Measured latency (%d calls%s): ", histogram.getCount(),
+                            failedCalls == 0 ? "" : ", " + failedCalls + " failed"));
+            if (histogram.getCount() == 0) {
+                description.appendText("none");
+            } else {
+                description.appendText(String.format("min=%s p50=%s p90=%s p99=%s p99.9=%s max=%s mean=%.3fms",
+                        formatMillis(histogram.getMin()), formatMillis(histogram.getValueAtPercentile(50)),
+                        formatMillis(histogram.getValueAtPercentile(90)), formatMillis(histogram.getValueAtPercentile(99)),
+                        formatMillis(histogram.getValueAtPercentile(99.9)), formatMillis(histogram.getMax()),
+                        histogram.getMean() / 1e6));
+                for (LatencyPercentiles.Expectation expectation : unmet) {
+                    description.appendText("\n    but: " + expectation.getName() + " was ")
+                            .appendValue(expectation.toUnit(histogram.getValueAtPercentile(expectation.getPercentile())))
+                            .appendText(" " + expectation.getUnitSymbol());
+                }
+            }
+            throw new RetryAssertionError(description.toString());
+        } finally {
+            listener.runCompleted(run, passed);
+        }
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.3fms", nanos / 1e6);
+    }
+
+    /**
+     * Logs the values resolved for this assertion, whether set explicitly, by a timing profile, or by default.
+     */
+    private void logConfig() {
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine(String.format("Retry configuration: max attempts %d, wait strategy: %s%s, timeout: %s",
+                    retryConfig.getMaxAttempts(), retryConfig.getWaitStrategy(),
+                    retryConfig.isWaitStrategyConfigured() ? "" : " (default)", retryConfig.getTimeout()));
         }
+    }
+
+    /**
+     * @return true if either the timeout expired or the retry budget, if any, is exhausted
+     */
+    private boolean isOutOfTime() {
+        return retryConfig.getTimeout().isExpired()
+                || (retryConfig.getBudget() != null && retryConfig.getBudget().isExhausted());
+    }
+
+    private String outOfTimeReason() {
+        return retryConfig.getBudget() != null && retryConfig.getBudget().isExhausted() ?
+                "Retry budget exhausted (" + retryConfig.getBudget() + "). " : "Timeout reached. ";
+    }
+
+    private long getRemainingTimeNanos() {
+        long remainingNanos = retryConfig.getTimeout().getRemainingTimeNanos();
+        return retryConfig.getBudget() == null ? remainingNanos
+                : Math.min(remainingNanos, retryConfig.getBudget().getRemainingTimeNanos());
+    }
+
+    /**
+     * Runs the given probe until it passes, or until the max attempts or the timeout are reached.
+     * <p>
+     * The actual values are boxed for the listeners only if there are any,
+     * and the log messages are formatted only if INFO is enabled,
+     * so that the primitive probes do not allocate on each attempt.
+     * If a {@link CircuitBreaker} is configured and open, the probe is not fetched and the assertion fails immediately.
+     * Any error thrown while fetching is recorded as a failure by the circuit breaker, and then propagated.
+     * The listeners are notified of the end of the run however it ends, even if the probe throws.
+     *
+     * @throws RetryAssertionError if the probe never passed
+     */
+    void run(String failureReason, Probe probe) {
+        int i;
+        RetryListener listener = retryConfig.getListener();
+        boolean notify = retryConfig.hasListeners();
+        CircuitBreaker circuitBreaker = retryConfig.getCircuitBreaker();
+        RetryRun run = new RetryRun(failureReason, probe, retryConfig.getMaxAttempts());
+
+        retryConfig.getTimeout().restart();
+        logConfig();
+        listener.runStarted(run);
+        boolean passed = false;
+        try {
+            for (i = 1; i <= retryConfig.getMaxAttempts(); i++) { // i starts from 1
+                if (i > 1) {
+                    if (isOutOfTime()) {
+                        failureReason = outOfTimeReason() + failureReason.trim();
+                        break;
+                    }
+                    long waitStartNanos = System.nanoTime();
+                    retryConfig.getWaitStrategy().run(); // wait and then re-try
+                    listener.waitCompleted(run, i - 1, System.nanoTime() - waitStartNanos);
+                }
+
+                if (circuitBreaker != null && !circuitBreaker.tryAcquire()) {
+                    throw new RetryAssertionError(String.format("Assertion failed after %d/%d attempts: " +
+                            "circuit open (%s, %d consecutive supplier failures)", i - 1, retryConfig.getMaxAttempts(),
+                            circuitBreaker, circuitBreaker.getConsecutiveFailures()), circuitBreaker.getLastFailure());
+                }
+
+                long supplierStartNanos = System.nanoTime();
+                try {
+                    probe.fetch();
+                    if (circuitBreaker != null) {
+                        circuitBreaker.recordSuccess();
+                    }
+                } catch (Exception | AssertionError e) {
+                    if (circuitBreaker != null) {
+                        circuitBreaker.recordFailure(e);
+                    }
+                    listener.attemptCompleted(run, i, System.nanoTime() - supplierStartNanos, null, e, null);
+                    if (!retryConfig.isRetryOnException()) {
+                        throw new RetryAssertionError(String.format("Assertion failed after %d/%d attempts: " +
+                                "the supplier of actual values failed", i, retryConfig.getMaxAttempts()), e);
+                    }
+
+                    // TODO configurable type of exception to retry on
+//                    if (!retryConfig.getRetryException().isAssignableFrom(e.getClass())) {
+//                        throw e;
+//                    }
+                    LOG.log(Level.INFO, String.format("Supplier of actual values failed (%d/%d). Waiting before trying again: %s.",
+                            i, retryConfig.getMaxAttempts(), retryConfig.getWaitStrategy()), e);
+                    continue;
+                } catch (Error e) {
+                    if (circuitBreaker != null) {
+                        circuitBreaker.recordFailure(e); // not to leave the circuit half-open
+                    }
+                    throw e;
+                }
+                long supplierNanos = System.nanoTime() - supplierStartNanos;
+                boolean matched = probe.check();
+                if (notify) {
+                    listener.attemptCompleted(run, i, supplierNanos, probe.getLastValue(), null, matched);
+                }
+                if (matched) {
+                    passed = true;
+                    if (LOG.isLoggable(Level.INFO)) {
+                        LOG.info("Assertion eventually passed: " + probe);
+                    }
+                    return; // assertion PASSED!
+                }
+                if (LOG.isLoggable(Level.INFO)) {
+                    LOG.log(Level.INFO, String.format("Assertion failed (%d/%d). Waiting before trying again: %s. %s",
+                            i, retryConfig.getMaxAttempts(), retryConfig.getWaitStrategy(),
+                            AssertionError.class.getName() + ": " + probe.describeLastMismatch()));
+                }
+            }
+
+            // the assertion never passed => throw
 
-        // the assertion never passed => throw
-
-        Description description = new StringDescription()
-                .appendText(String.format("Assertion failed after %d/%d attempts ", i - 1, retryConfig.getMaxAttempts()) +
-                        "(" + TimeUtils.prettyPrint(retryConfig.getTimeout().getElapsedTimeMillis()) + "): ")
-                .appendText(failureReason.trim())
-                .appendText("\n    Expected: ")
-                .appendDescriptionOf(matcher)
-                .appendText("\n    Actual values (in order of appearance):");
-        int j = 1;
-        for (T failingActualValue : suppliedValues) {
-            description.appendText("\n         - ");
-            description.appendValue(failingActualValue);
-            j++;
+            Description description = new StringDescription()
+                    .appendText(String.format("Assertion failed after %d/%d attempts ", i - 1, retryConfig.getMaxAttempts()) +
+                            "(" + TimeUtils.prettyPrint(retryConfig.getTimeout().getElapsedTimeMillis()) + "): ")
+                    .appendText(failureReason.trim());
+            probe.describeFailure(description);
+            throw new RetryAssertionError(description.toString());
+        } finally {
+            listener.runCompleted(run, passed);
         }
-        throw new RetryAssertionError(description.toString());
     }
 
     public RetryConfig getConfig() {
@@ -0,0 +1,109 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Subscriber} handing over the items to the thread running the assertion, with bounded demand:
+ * no more than {@link #DEMAND} items are requested and not consumed yet, at any time,
+ * hence the buffer can never overflow.
+ */
+class BufferingSubscriber<T> implements Subscriber<T> {
+
+    static final int DEMAND = 16;
+
+    private static final Object COMPLETE = new Object();
+
+    private final BlockingQueue<Object> signals = new ArrayBlockingQueue<>(DEMAND + 1); // + the terminal signal
+    private Subscription subscription;
+    private boolean cancelled;
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        synchronized (this) {
+            if (this.subscription != null || cancelled) {
+                subscription.cancel(); // rule 2.5
+                return;
+            }
+            this.subscription = subscription;
+        }
+        subscription.request(DEMAND);
+    }
+
+    @Override
+    public void onNext(T item) {
+        signals.offer(item);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        signals.offer(new Failure(t));
+    }
+
+    @Override
+    public void onComplete() {
+        signals.offer(COMPLETE);
+    }
+
+    /**
+     * Waits for the next item, and requests one more.
+     *
+     * @return the next item, or null if none was published within the given time
+     * @throws PublisherCompletedException if the publisher completed
+     * @throws PublisherFailedException if the publisher failed
+     */
+    @SuppressWarnings("unchecked")
+    T next(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        Object signal = signals.poll(timeout, timeUnit);
+        if (signal == null) {
+            return null;
+        }
+        if (signal == COMPLETE) {
+            throw new PublisherCompletedException();
+        }
+        if (signal instanceof Failure) {
+            throw new PublisherFailedException(((Failure) signal).cause);
+        }
+        Subscription subscription;
+        synchronized (this) {
+            subscription = this.subscription;
+        }
+        subscription.request(1);
+        return (T) signal;
+    }
+
+    void cancel() {
+        Subscription subscription;
+        synchronized (this) {
+            cancelled = true;
+            subscription = this.subscription;
+        }
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    private static class Failure {
+        private final Throwable cause;
+
+        Failure(Throwable cause) {
+            this.cause = cause;
+        }
+    }
+
+    static class PublisherCompletedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    static class PublisherFailedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        PublisherFailedException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.Description;
+
+import java.util.Arrays;
+
+import me.alb_i986.testing.assertions.retry.DoubleSupplier;
+import me.alb_i986.testing.assertions.retry.DoublePredicate;
+
+/**
+ * Probes an {@link DoubleSupplier} against a {@link DoublePredicate}, without boxing:
+ * the actual values are kept in a primitive array.
+ */
+class DoubleProbe extends Probe {
+
+    private final DoubleSupplier actualValuesSupplier;
+    private final DoublePredicate predicate;
+    private double[] suppliedValues;
+    private int size;
+    private double lastValue;
+
+    DoubleProbe(DoubleSupplier actualValuesSupplier, DoublePredicate predicate, int expectedAttempts) {
+        this.actualValuesSupplier = actualValuesSupplier;
+        this.predicate = predicate;
+        this.suppliedValues = new double[Math.min(expectedAttempts, 16)];
+    }
+
+    @Override
+    void fetch() throws Exception {
+        lastValue = actualValuesSupplier.getAsDouble();
+        if (size == suppliedValues.length) {
+            suppliedValues = Arrays.copyOf(suppliedValues, size * 2);
+        }
+        suppliedValues[size++] = lastValue;
+    }
+
+    @Override
+    boolean check() {
+        return predicate.test(lastValue);
+    }
+
+    double getLastDouble() {
+        return lastValue;
+    }
+
+    @Override
+    Double getLastValue() {
+        return lastValue;
+    }
+
+    @Override
+    void describeActualValues(Description description) {
+        for (int i = 0; i < size; i++) {
+            describeValue(description, suppliedValues[i]);
+        }
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendDescriptionOf(predicate);
+    }
+}
@@ -0,0 +1,134 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import me.alb_i986.testing.assertions.retry.BulkSupplier;
+
+/**
+ * Probes the values of many keys at once, via a {@link BulkSupplier}, until each one of them satisfies the matcher.
+ * <p>
+ * The keys whose value has satisfied the matcher once are no longer pending:
+ * each fetch asks the supplier for the values of the pending keys only.
+ * The probe passes once there are no pending keys left.
+ * <p>
+ * The failure report lists the keys still pending, along with the last values supplied for them,
+ * up to {@value #MAX_LISTED_KEYS}, and how many keys were pending after each attempt,
+ * only the first and the last {@value #MAX_LISTED_ATTEMPTS} attempts if there were more.
+ */
+class EachProbe<K, V> extends Probe {
+
+    static final int MAX_LISTED_KEYS = 20;
+    static final int MAX_LISTED_ATTEMPTS = 10;
+
+    private final BulkSupplier<K, V> bulkSupplier;
+    private final Matcher<? super V> matcher;
+    private final int totalKeys;
+    private final Set<K> pendingKeys;
+    private final Map<K, V> lastValues = new HashMap<>();
+    private Map<K, V> suppliedValues = Collections.emptyMap();
+    private final List<Integer> pendingPerAttempt = new ArrayList<>();
+
+    EachProbe(Collection<K> keys, BulkSupplier<K, V> bulkSupplier, Matcher<? super V> matcher) {
+        this.bulkSupplier = bulkSupplier;
+        this.matcher = matcher;
+        this.pendingKeys = new LinkedHashSet<>(keys);
+        this.totalKeys = pendingKeys.size();
+    }
+
+    @Override
+    void fetch() throws Exception {
+        if (pendingKeys.isEmpty()) {
+            return;
+        }
+        Map<K, V> values = bulkSupplier.get(Collections.unmodifiableSet(new LinkedHashSet<>(pendingKeys)));
+        suppliedValues = values == null ? Collections.<K, V>emptyMap() : values;
+    }
+
+    /**
+     * Drops the keys whose value satisfies the matcher from the pending ones.
+     * A key missing from the supplied values is checked as null, but its last value is the one last supplied, if any.
+     *
+     * @return true if no keys are pending
+     */
+    @Override
+    boolean check() {
+        for (Iterator<K> it = pendingKeys.iterator(); it.hasNext(); ) {
+            K key = it.next();
+            V value = suppliedValues.get(key);
+            if (matcher.matches(value)) {
+                it.remove();
+                lastValues.remove(key);
+            } else if (suppliedValues.containsKey(key)) {
+                lastValues.put(key, value);
+            }
+        }
+        pendingPerAttempt.add(pendingKeys.size());
+        return pendingKeys.isEmpty();
+    }
+
+    /**
+     * @return the number of keys still pending
+     */
+    @Override
+    Integer getLastValue() {
+        return pendingKeys.size();
+    }
+
+    @Override
+    String describeLastMismatch() {
+        return pendingKeys.size() + " of " + totalKeys + " keys still pending.";
+    }
+
+    @Override
+    void describeFailure(Description description) {
+        description.appendText("\n    Expected: ")
+                .appendDescriptionOf(this)
+                .appendText("\n    Still pending: " + pendingKeys.size() + " of " + totalKeys + " keys, with their last values:");
+        describeActualValues(description);
+        description.appendText("\n    Pending keys after each attempt: ");
+        int attempts = pendingPerAttempt.size();
+        for (int i = 0; i < attempts; i++) {
+            if (i == MAX_LISTED_ATTEMPTS && attempts > 2 * MAX_LISTED_ATTEMPTS) {
+                description.appendText(", ... " + (attempts - 2 * MAX_LISTED_ATTEMPTS) + " more");
+                i = attempts - MAX_LISTED_ATTEMPTS;
+            }
+            description.appendText((i == 0 ? "" : ", ") + pendingPerAttempt.get(i));
+        }
+    }
+
+    @Override
+    void describeActualValues(Description description) {
+        int listed = 0;
+        for (K key : pendingKeys) {
+            if (listed++ == MAX_LISTED_KEYS) {
+                description.appendText("\n         ... and " + (pendingKeys.size() - MAX_LISTED_KEYS) + " more");
+                break;
+            }
+            description.appendText("\n         - ")
+                    .appendValue(key)
+                    .appendText(": ");
+            if (lastValues.containsKey(key)) {
+                description.appendValue(lastValues.get(key));
+            } else {
+                description.appendText("never supplied");
+            }
+        }
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("each of " + totalKeys + " keys: ")
+                .appendDescriptionOf(matcher);
+    }
+}
@@ -0,0 +1,203 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import me.alb_i986.testing.assertions.retry.Supplier;
+
+/**
+ * Probes several sources of the same actual value, e.g. the read replicas of a database,
+ * invoking their suppliers concurrently at each fetch.
+ * <p>
+ * A fetch returns as soon as any source supplies a value satisfying the matcher, cancelling the slower calls,
+ * or else once all of the sources have replied. It fails only if all of the sources failed,
+ * in which case it throws the exception thrown by the first one which failed.
+ * <p>
+ * The actual values are recorded by source, in order to group them in the failure report.
+ * The probe should be {@link #close() closed} once done, so as to release its threads.
+ */
+class FirstOfProbe<T> extends Probe {
+
+    private final Map<String, Supplier<? extends T>> sources;
+    private final List<String> sourceNames;
+    private final Matcher<? super T> matcher;
+    private final ExecutorService executor;
+    private final Map<String, List<Object>> suppliedValuesBySource = new LinkedHashMap<>();
+    private final Map<String, Object> lastValuesBySource = new LinkedHashMap<>();
+    private T lastValue;
+    private boolean matched;
+
+    FirstOfProbe(Map<String, ? extends Supplier<? extends T>> sources, Matcher<? super T> matcher) {
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("at least one source of actual values is required");
+        }
+        this.sources = new LinkedHashMap<>(sources);
+        this.sourceNames = new ArrayList<>(sources.keySet());
+        this.matcher = matcher;
+        this.executor = Executors.newFixedThreadPool(sources.size(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "assert-retry first-of");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        for (String source : sources.keySet()) {
+            suppliedValuesBySource.put(source, new ArrayList<>());
+        }
+    }
+
+    @Override
+    void fetch() throws Exception {
+        CompletionService<Reply> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Reply>> calls = new ArrayList<>(sources.size());
+        for (final Map.Entry<String, Supplier<? extends T>> source : sources.entrySet()) {
+            calls.add(completionService.submit(new Callable<Reply>() {
+                @Override
+                public Reply call() throws Exception {
+                    return new Reply(source.getKey(), source.getValue().get());
+                }
+            }));
+        }
+
+        matched = false;
+        lastValue = null;
+        lastValuesBySource.clear();
+        Throwable firstFailure = null;
+        boolean anyValue = false;
+        try {
+            for (int i = 0; i < calls.size() && !matched; i++) {
+                Future<Reply> call = completionService.take();
+                try {
+                    Reply reply = call.get();
+                    anyValue = true;
+                    lastValue = reply.value;
+                    matched = matcher.matches(reply.value);
+                    record(reply.source, reply.value);
+                } catch (ExecutionException e) {
+                    if (firstFailure == null) {
+                        firstFailure = e.getCause();
+                    }
+                    record(sourceNames.get(calls.indexOf(call)), new Failure(e.getCause()));
+                }
+            }
+        } finally {
+            for (Future<Reply> call : calls) {
+                call.cancel(true); // no-op for the calls completed
+            }
+        }
+
+        if (!anyValue) {
+            if (firstFailure instanceof Exception) {
+                throw (Exception) firstFailure;
+            }
+            if (firstFailure instanceof Error) {
+                throw (Error) firstFailure;
+            }
+            throw new AssertionError("all of the sources failed", firstFailure);
+        }
+    }
+
+    private void record(String source, Object value) {
+        suppliedValuesBySource.get(source).add(value);
+        lastValuesBySource.put(source, value);
+    }
+
+    @Override
+    boolean check() {
+        return matched;
+    }
+
+    /**
+     * @return the value satisfying the matcher, if any; otherwise the last value supplied by any source
+     */
+    @Override
+    T getLastValue() {
+        return lastValue;
+    }
+
+    @Override
+    String describeLastMismatch() {
+        Description description = new StringDescription()
+                .appendText("\nExpected: ")
+                .appendDescriptionOf(this)
+                .appendText("\n     but:");
+        for (Map.Entry<String, Object> value : lastValuesBySource.entrySet()) {
+            description.appendText("\n         " + value.getKey() + ": ");
+            describeSourceValue(description, value.getValue());
+        }
+        return description.toString();
+    }
+
+    @Override
+    void describeFailure(Description description) {
+        description.appendText("\n    Expected: ")
+                .appendDescriptionOf(this)
+                .appendText("\n    Actual values by source (in order of appearance):");
+        describeActualValues(description);
+    }
+
+    @Override
+    void describeActualValues(Description description) {
+        for (Map.Entry<String, List<Object>> source : suppliedValuesBySource.entrySet()) {
+            description.appendText("\n       " + source.getKey() + ":");
+            for (Object value : source.getValue()) {
+                description.appendText("\n         - ");
+                describeSourceValue(description, value);
+            }
+        }
+    }
+
+    private static void describeSourceValue(Description description, Object value) {
+        if (value instanceof Failure) {
+            description.appendText("failed: " + ((Failure) value).cause);
+        } else {
+            description.appendValue(value);
+        }
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("any of " + sourceNames + " to supply ")
+                .appendDescriptionOf(matcher);
+    }
+
+    /**
+     * Stops the threads calling the sources.
+     */
+    void close() {
+        executor.shutdownNow();
+    }
+
+    private class Reply {
+        private final String source;
+        private final T value;
+
+        Reply(String source, T value) {
+            this.source = source;
+            this.value = value;
+        }
+    }
+
+    private static class Failure {
+        private final Throwable cause;
+
+        Failure(Throwable cause) {
+            this.cause = cause;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import me.alb_i986.testing.assertions.AssertRetry;
+import me.alb_i986.testing.assertions.retry.RetryListener;
+
+/**
+ * Bridges retry assertions to the JDK Flight Recorder, when running on Java 11 or later.
+ * <p>
+ * The listener emitting the JFR events is compiled separately, targeting Java 11,
+ * and is loaded reflectively only if the running JVM provides the JFR API.
+ * On older JVMs, or if the system property {@value #ENABLED_PROPERTY} is set to {@code false},
+ * no listener is registered at all.
+ * <p>
+ * Even when loaded, the listener is registered only to the assertions starting while a recording has any of its
+ * events enabled, so that the other assertions pay nothing for it.
+ */
+public class FlightRecorderSupport {
+
+    private static final Logger LOG = Logger.getLogger(AssertRetry.class.getName());
+
+    public static final String ENABLED_PROPERTY = "assertretry.jfr";
+
+    private static final String LISTENER_CLASS = "me.alb_i986.testing.assertions.retry.internal.FlightRecorderListener";
+
+    private static final RetryListener LISTENER = loadListener();
+
+    /**
+     * Implemented by the listener, to tell whether any recording has its events enabled.
+     */
+    interface Switchable {
+
+        boolean isEnabled();
+    }
+
+    protected FlightRecorderSupport() {
+        // static class
+    }
+
+    /**
+     * @return the listener emitting JFR events, or null if JFR is not available, has been disabled,
+     *         or if no recording has any of its events enabled
+     */
+    public static RetryListener getListener() {
+        return LISTENER != null && ((Switchable) LISTENER).isEnabled() ? LISTENER : null;
+    }
+
+    private static RetryListener loadListener() {
+        if ("false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY))) {
+            return null;
+        }
+        try {
+            Class.forName("jdk.jfr.Event");
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            return (RetryListener) Class.forName(LISTENER_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null; // not compiled in, as built with a JDK older than 11
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            LOG.log(Level.FINE, "JFR events for retry assertions not available", e);
+            return null;
+        }
+    }
+}
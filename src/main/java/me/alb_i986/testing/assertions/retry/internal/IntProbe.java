@@ -0,0 +1,62 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.Description;
+
+import java.util.Arrays;
+
+import me.alb_i986.testing.assertions.retry.IntSupplier;
+import me.alb_i986.testing.assertions.retry.IntPredicate;
+
+/**
+ * Probes an {@link IntSupplier} against an {@link IntPredicate}, without boxing:
+ * the actual values are kept in a primitive array.
+ */
+class IntProbe extends Probe {
+
+    private final IntSupplier actualValuesSupplier;
+    private final IntPredicate predicate;
+    private int[] suppliedValues;
+    private int size;
+    private int lastValue;
+
+    IntProbe(IntSupplier actualValuesSupplier, IntPredicate predicate, int expectedAttempts) {
+        this.actualValuesSupplier = actualValuesSupplier;
+        this.predicate = predicate;
+        this.suppliedValues = new int[Math.min(expectedAttempts, 16)];
+    }
+
+    @Override
+    void fetch() throws Exception {
+        lastValue = actualValuesSupplier.getAsInt();
+        if (size == suppliedValues.length) {
+            suppliedValues = Arrays.copyOf(suppliedValues, size * 2);
+        }
+        suppliedValues[size++] = lastValue;
+    }
+
+    @Override
+    boolean check() {
+        return predicate.test(lastValue);
+    }
+
+    int getLastInt() {
+        return lastValue;
+    }
+
+    @Override
+    Integer getLastValue() {
+        return lastValue;
+    }
+
+    @Override
+    void describeActualValues(Description description) {
+        for (int i = 0; i < size; i++) {
+            describeValue(description, suppliedValues[i]);
+        }
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendDescriptionOf(predicate);
+    }
+}
@@ -0,0 +1,93 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+/**
+ * A compact histogram of non-negative durations, in nanoseconds, with a bounded relative error.
+ * <p>
+ * Values below {@value #LINEAR_LIMIT} are counted exactly. Larger values are counted in buckets
+ * spanning a power of two each, split into {@value #SUB_BUCKETS} sub-buckets, hence the error is below 1/64 (1.6%).
+ * The whole range of long values fits in less than 4k counters, no matter how many values are recorded.
+ * <p>
+ * Not thread safe.
+ */
+public class LatencyHistogram {
+
+    static final int LINEAR_LIMIT = 128;
+    static final int SUB_BUCKETS = 64;
+
+    private static final int LINEAR_BITS = 7; // log2(LINEAR_LIMIT)
+    private static final int SUB_BUCKET_BITS = 6; // log2(SUB_BUCKETS)
+
+    private final long[] counts = new long[LINEAR_LIMIT + (64 - LINEAR_BITS) * SUB_BUCKETS];
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private double sum;
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts[indexOf(nanos)]++;
+        count++;
+        min = Math.min(min, nanos);
+        max = Math.max(max, nanos);
+        sum += nanos;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * @param percentile between 0 (excluded) and 100 (included)
+     * @return the value below or equal to which the given percentage of the recorded values fall,
+     *         i.e. the highest value of the bucket where the percentile falls (but never more than the max);
+     *         0 if no value has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // >= LINEAR_BITS
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - LINEAR_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueOf(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + LINEAR_BITS;
+        long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lowest = ((long) SUB_BUCKETS + subBucket) << shift;
+        return lowest + ((1L << shift) - 1);
+    }
+}
@@ -0,0 +1,62 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.Description;
+
+import java.util.Arrays;
+
+import me.alb_i986.testing.assertions.retry.LongSupplier;
+import me.alb_i986.testing.assertions.retry.LongPredicate;
+
+/**
+ * Probes an {@link LongSupplier} against a {@link LongPredicate}, without boxing:
+ * the actual values are kept in a primitive array.
+ */
+class LongProbe extends Probe {
+
+    private final LongSupplier actualValuesSupplier;
+    private final LongPredicate predicate;
+    private long[] suppliedValues;
+    private int size;
+    private long lastValue;
+
+    LongProbe(LongSupplier actualValuesSupplier, LongPredicate predicate, int expectedAttempts) {
+        this.actualValuesSupplier = actualValuesSupplier;
+        this.predicate = predicate;
+        this.suppliedValues = new long[Math.min(expectedAttempts, 16)];
+    }
+
+    @Override
+    void fetch() throws Exception {
+        lastValue = actualValuesSupplier.getAsLong();
+        if (size == suppliedValues.length) {
+            suppliedValues = Arrays.copyOf(suppliedValues, size * 2);
+        }
+        suppliedValues[size++] = lastValue;
+    }
+
+    @Override
+    boolean check() {
+        return predicate.test(lastValue);
+    }
+
+    long getLastLong() {
+        return lastValue;
+    }
+
+    @Override
+    Long getLastValue() {
+        return lastValue;
+    }
+
+    @Override
+    void describeActualValues(Description description) {
+        for (int i = 0; i < size; i++) {
+            describeValue(description, suppliedValues[i]);
+        }
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendDescriptionOf(predicate);
+    }
+}
@@ -0,0 +1,69 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.Description;
+import org.hamcrest.SelfDescribing;
+import org.hamcrest.StringDescription;
+
+/**
+ * What {@link AssertRetryEngine} retries: fetches an actual value and checks it against an expectation,
+ * keeping track of the values fetched so far, in order to describe the failure.
+ * <p>
+ * The description of the probe is the description of the expectation.
+ */
+abstract class Probe implements SelfDescribing {
+
+    /**
+     * Fetches the next actual value.
+     *
+     * @throws Exception if the supplier of actual values failed
+     */
+    abstract void fetch() throws Exception;
+
+    /**
+     * @return true if the last value fetched satisfies the expectation
+     */
+    abstract boolean check();
+
+    /**
+     * @return the last value fetched, as reported to the {@link me.alb_i986.testing.assertions.retry.RetryListener}s
+     */
+    abstract Object getLastValue();
+
+    /**
+     * Appends the values fetched so far to the failure report.
+     */
+    abstract void describeActualValues(Description description);
+
+    /**
+     * Appends the expectation and the values fetched so far to the failure report.
+     * The default format is the one of {@link AssertRetryEngine#assertThat(String, me.alb_i986.testing.assertions.retry.Supplier, org.hamcrest.Matcher)}.
+     */
+    void describeFailure(Description description) {
+        description.appendText("\n    Expected: ")
+                .appendDescriptionOf(this)
+                .appendText("\n    Actual values (in order of appearance):");
+        describeActualValues(description);
+    }
+
+    /**
+     * @return why the last value fetched does not satisfy the expectation, in the format of Hamcrest's assertThat
+     */
+    String describeLastMismatch() {
+        return new StringDescription()
+                .appendText("\nExpected: ")
+                .appendDescriptionOf(this)
+                .appendText("\n     but: was ")
+                .appendValue(getLastValue())
+                .toString();
+    }
+
+    static void describeValue(Description description, Object value) {
+        description.appendText("\n         - ");
+        description.appendValue(value);
+    }
+
+    @Override
+    public String toString() {
+        return StringDescription.toString(this);
+    }
+}
@@ -0,0 +1,141 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import me.alb_i986.testing.assertions.retry.LongSupplier;
+
+/**
+ * Probes the rate at which a monotonic counter grows, e.g. the number of messages processed.
+ * <p>
+ * Each fetch samples the counter along with a timestamp; the rate is the increase of the counter
+ * between successive samples, divided by the time elapsed.
+ * The first sample only establishes the baseline, hence it never satisfies the expectation.
+ * If the counter goes backwards, it is assumed to have been reset, and to count from 0 since the previous sample.
+ * <p>
+ * The rate checked may be smoothed over a sliding window of the last N intervals,
+ * in which case it is the total increase over the window, divided by the total time elapsed.
+ */
+class RateProbe extends Probe {
+
+    private final LongSupplier counter;
+    private final Matcher<? super Double> matcher;
+    private final TimeUnit rateUnit;
+    private final int window;
+
+    // one entry per interval between two successive samples
+    private long[] deltas = new long[16];
+    private long[] elapsedNanos = new long[16];
+    private boolean[] resets = new boolean[16];
+    private int intervals;
+
+    private boolean sampled;
+    private long lastCount;
+    private long lastNanos;
+    private Double lastRate;
+
+    /**
+     * @param window the number of most recent intervals to smooth the rate over; 1 means no smoothing
+     */
+    RateProbe(LongSupplier counter, Matcher<? super Double> matcher, TimeUnit rateUnit, int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("the window should be at least 1 interval");
+        }
+        this.counter = counter;
+        this.matcher = matcher;
+        this.rateUnit = rateUnit;
+        this.window = window;
+    }
+
+    @Override
+    void fetch() throws Exception {
+        long count = counter.getAsLong();
+        long nanos = System.nanoTime();
+        if (sampled) {
+            boolean reset = count < lastCount;
+            addInterval(reset ? count : count - lastCount, Math.max(1, nanos - lastNanos), reset);
+            lastRate = smoothedRate();
+        }
+        sampled = true;
+        lastCount = count;
+        lastNanos = nanos;
+    }
+
+    private void addInterval(long delta, long nanos, boolean reset) {
+        if (intervals == deltas.length) {
+            deltas = Arrays.copyOf(deltas, intervals * 2);
+            elapsedNanos = Arrays.copyOf(elapsedNanos, intervals * 2);
+            resets = Arrays.copyOf(resets, intervals * 2);
+        }
+        deltas[intervals] = delta;
+        elapsedNanos[intervals] = nanos;
+        resets[intervals] = reset;
+        intervals++;
+    }
+
+    private double smoothedRate() {
+        long delta = 0;
+        long nanos = 0;
+        for (int i = Math.max(0, intervals - window); i < intervals; i++) {
+            delta += deltas[i];
+            nanos += elapsedNanos[i];
+        }
+        return rate(delta, nanos);
+    }
+
+    private double rate(long delta, long nanos) {
+        return delta * (double) rateUnit.toNanos(1) / nanos;
+    }
+
+    @Override
+    boolean check() {
+        return lastRate != null && matcher.matches(lastRate);
+    }
+
+    /**
+     * @return the last rate computed, possibly smoothed, or null if only one sample has been taken so far
+     */
+    @Override
+    Double getLastValue() {
+        return lastRate;
+    }
+
+    @Override
+    void describeActualValues(Description description) {
+        if (intervals == 0) {
+            description.appendText("\n         (only one sample taken: " + lastCount + ")");
+        }
+        for (int i = 0; i < intervals; i++) {
+            describeValue(description, rate(deltas[i], elapsedNanos[i]));
+            description.appendText(" (+" + deltas[i] + " in "
+                    + TimeUtils.prettyPrint(TimeUnit.NANOSECONDS.toMillis(elapsedNanos[i]))
+                    + (resets[i] ? ", counter reset" : "") + ")");
+        }
+    }
+
+    @Override
+    void describeFailure(Description description) {
+        description.appendText("\n    Expected: ")
+                .appendDescriptionOf(this)
+                .appendText("\n    Observed rates per " + unitName() + " (in order of appearance):");
+        describeActualValues(description);
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("a rate per " + unitName());
+        if (window > 1) {
+            description.appendText(" (over the last " + window + " intervals)");
+        }
+        description.appendText(" of ").appendDescriptionOf(matcher);
+    }
+
+    private String unitName() {
+        String name = rateUnit.name().toLowerCase(Locale.ROOT);
+        return name.substring(0, name.length() - 1);
+    }
+}
@@ -0,0 +1,174 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.Description;
+import org.hamcrest.StringDescription;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.UnresolvedAddressException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probes a set of TCP endpoints, checking that all of them accept connections.
+ * <p>
+ * On each attempt, connects to all of the endpoints which were not up yet, concurrently,
+ * by means of non-blocking channels driven by a single {@link Selector}.
+ * An endpoint which accepted a connection once is considered up, and is not probed anymore.
+ * The connections are closed as soon as they are established.
+ */
+class ReadinessProbe extends Probe {
+
+    static final long DEFAULT_CONNECT_TIMEOUT_MILLIS = 1000;
+
+    private final long connectTimeoutNanos;
+    private final Timeout timeout;
+    private final int endpointsCount;
+    private final Set<InetSocketAddress> pending;
+    private final Map<InetSocketAddress, String> lastErrors = new LinkedHashMap<>();
+
+    /**
+     * @param connectTimeoutNanos how long to wait for the connections at each attempt,
+     *                            capped by the time remaining before the timeout of the assertion
+     * @param timeout the timeout of the assertion
+     */
+    ReadinessProbe(Collection<InetSocketAddress> endpoints, long connectTimeoutNanos, Timeout timeout) {
+        this.connectTimeoutNanos = connectTimeoutNanos;
+        this.timeout = timeout;
+        this.pending = new LinkedHashSet<>(endpoints);
+        this.endpointsCount = pending.size();
+    }
+
+    @Override
+    void fetch() throws IOException {
+        try (Selector selector = Selector.open()) {
+            int connecting = 0;
+            for (InetSocketAddress endpoint : pending) {
+                if (connect(selector, endpoint)) {
+                    connecting++;
+                }
+            }
+            long waitNanos = Math.min(connectTimeoutNanos, timeout.getRemainingTimeNanos());
+            long deadline = System.nanoTime() + waitNanos;
+            long remainingMillis;
+            while (connecting > 0
+                    && (remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+                selector.select(remainingMillis);
+                Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                while (selected.hasNext()) {
+                    SelectionKey key = selected.next();
+                    selected.remove();
+                    InetSocketAddress endpoint = (InetSocketAddress) key.attachment();
+                    SocketChannel channel = (SocketChannel) key.channel();
+                    try {
+                        if (channel.finishConnect()) {
+                            up(endpoint);
+                        } else {
+                            lastErrors.put(endpoint, "connection still pending");
+                        }
+                    } catch (IOException e) {
+                        lastErrors.put(endpoint, e.toString());
+                    }
+                    key.cancel();
+                    close(channel);
+                    connecting--;
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                if (!key.isValid()) {
+                    continue; // cancelled
+                }
+                lastErrors.put((InetSocketAddress) key.attachment(),
+                        "connect timed out after " + TimeUtils.prettyPrint(TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+                close(key.channel());
+            }
+        }
+    }
+
+    /**
+     * @return true if the connection is in progress, false if it has already succeeded or failed
+     */
+    private boolean connect(Selector selector, InetSocketAddress endpoint) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            if (channel.connect(endpoint)) {
+                up(endpoint);
+                close(channel);
+                return false;
+            }
+            channel.register(selector, SelectionKey.OP_CONNECT, endpoint);
+            return true;
+        } catch (IOException e) {
+            lastErrors.put(endpoint, e.toString());
+        } catch (UnresolvedAddressException e) {
+            lastErrors.put(endpoint, "unresolved address");
+        }
+        close(channel);
+        return false;
+    }
+
+    private void up(InetSocketAddress endpoint) {
+        lastErrors.remove(endpoint);
+    }
+
+    private static void close(Channel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // nothing to do
+        }
+    }
+
+    @Override
+    boolean check() {
+        // an endpoint is still pending if it failed in the last round
+        pending.retainAll(lastErrors.keySet());
+        return pending.isEmpty();
+    }
+
+    @Override
+    Object getLastValue() {
+        return pending.size() + "/" + endpointsCount + " endpoints not listening";
+    }
+
+    @Override
+    String describeLastMismatch() {
+        StringDescription description = new StringDescription();
+        description.appendText(getLastValue().toString());
+        describeActualValues(description);
+        return description.toString();
+    }
+
+    @Override
+    void describeFailure(Description description) {
+        description.appendText("\n    Expected: ")
+                .appendDescriptionOf(this)
+                .appendText("\n    Endpoints not listening (last error):");
+        describeActualValues(description);
+    }
+
+    @Override
+    void describeActualValues(Description description) {
+        for (InetSocketAddress endpoint : pending) {
+            description.appendText("\n         - ")
+                    .appendText(endpoint.toString())
+                    .appendText(": ")
+                    .appendText(lastErrors.get(endpoint));
+        }
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText("all of the " + endpointsCount + " endpoints accepting TCP connections");
+    }
+}
@@ -1,9 +1,15 @@
 package me.alb_i986.testing.assertions.retry.internal;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import me.alb_i986.testing.assertions.AssertRetry;
+import me.alb_i986.testing.assertions.retry.CircuitBreaker;
+import me.alb_i986.testing.assertions.retry.RetryBudget;
 import me.alb_i986.testing.assertions.retry.RetryConfigBuilder;
+import me.alb_i986.testing.assertions.retry.RetryListener;
 
 /**
  * Holds the configuration parameters for {@link AssertRetry} methods. Immutable object.
@@ -15,13 +21,47 @@ public class RetryConfig {
     private final boolean retryOnException;
     private final int maxAttempts;
     private final Runnable waitStrategy;
+    private final boolean waitStrategyConfigured;
     private final Timeout timeout;
+    private final List<RetryListener> listeners;
+    private final RetryListener listener;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryBudget budget;
 
     public RetryConfig(int maxAttempts, Runnable waitStrategy, boolean retryOnException, Timeout timeout) {
+        this(maxAttempts, waitStrategy, retryOnException, timeout, Collections.<RetryListener>emptyList());
+    }
+
+    public RetryConfig(int maxAttempts, Runnable waitStrategy, boolean retryOnException, Timeout timeout,
+                       List<RetryListener> listeners) {
+        this(maxAttempts, waitStrategy, retryOnException, timeout, listeners, null);
+    }
+
+    public RetryConfig(int maxAttempts, Runnable waitStrategy, boolean retryOnException, Timeout timeout,
+                       List<RetryListener> listeners, CircuitBreaker circuitBreaker) {
+        this(maxAttempts, waitStrategy, retryOnException, timeout, listeners, circuitBreaker, null);
+    }
+
+    public RetryConfig(int maxAttempts, Runnable waitStrategy, boolean retryOnException, Timeout timeout,
+                       List<RetryListener> listeners, CircuitBreaker circuitBreaker, RetryBudget budget) {
+        this(maxAttempts, waitStrategy, true, retryOnException, timeout, listeners, circuitBreaker, budget);
+    }
+
+    /**
+     * @param waitStrategyConfigured whether the wait strategy was configured, explicitly or by a timing profile,
+     *                               rather than defaulted
+     */
+    public RetryConfig(int maxAttempts, Runnable waitStrategy, boolean waitStrategyConfigured, boolean retryOnException,
+                       Timeout timeout, List<RetryListener> listeners, CircuitBreaker circuitBreaker, RetryBudget budget) {
         this.maxAttempts = maxAttempts;
         this.waitStrategy = waitStrategy;
+        this.waitStrategyConfigured = waitStrategyConfigured;
         this.retryOnException = retryOnException;
         this.timeout = timeout;
+        this.listeners = Collections.unmodifiableList(new ArrayList<>(listeners));
+        this.listener = new RetryListeners(this.listeners);
+        this.circuitBreaker = circuitBreaker;
+        this.budget = budget;
     }
 
     /**
@@ -45,10 +85,53 @@ public class RetryConfig {
         return waitStrategy;
     }
 
+    /**
+     * @return true if the wait strategy was configured, either explicitly or by a timing profile;
+     *         false if it is the default one
+     */
+    public boolean isWaitStrategyConfigured() {
+        return waitStrategyConfigured;
+    }
+
     /**
      * @see RetryConfigBuilder#timeoutAfter(long, TimeUnit)
      */
     public Timeout getTimeout() {
         return timeout;
     }
+
+    /**
+     * @return a listener broadcasting the events to all of the registered listeners
+     * @see RetryConfigBuilder#listener(RetryListener)
+     */
+    public RetryListener getListener() {
+        return listener;
+    }
+
+    /**
+     * @see RetryConfigBuilder#listener(RetryListener)
+     */
+    public List<RetryListener> getListeners() {
+        return listeners;
+    }
+
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * @return the circuit breaker guarding the supplier of actual values; null if none
+     * @see RetryConfigBuilder#circuitBreaker(CircuitBreaker)
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * @return the retry budget limiting the time spent by this assertion, on top of the timeout; null if none
+     * @see RetryConfigBuilder#budget(RetryBudget)
+     */
+    public RetryBudget getBudget() {
+        return budget;
+    }
 }
@@ -0,0 +1,76 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import me.alb_i986.testing.assertions.AssertRetry;
+import me.alb_i986.testing.assertions.retry.RetryListener;
+import me.alb_i986.testing.assertions.retry.RetryRun;
+
+/**
+ * Broadcasts the events to a list of {@link RetryListener}s, in order.
+ * <p>
+ * A failing listener is logged and ignored: listeners are meant to observe assertions,
+ * they should never be able to make them fail.
+ */
+public class RetryListeners extends RetryListener {
+
+    private static final Logger LOG = Logger.getLogger(AssertRetry.class.getName());
+
+    private final List<RetryListener> listeners;
+
+    public RetryListeners(List<RetryListener> listeners) {
+        this.listeners = new ArrayList<>(listeners);
+    }
+
+    @Override
+    public void runStarted(RetryRun run) {
+        for (RetryListener listener : listeners) {
+            try {
+                listener.runStarted(run);
+            } catch (RuntimeException e) {
+                logListenerFailure(listener, e);
+            }
+        }
+    }
+
+    @Override
+    public void attemptCompleted(RetryRun run, int attempt, long supplierNanos,
+                                 Object actualValue, Throwable supplierFailure, Boolean matched) {
+        for (RetryListener listener : listeners) {
+            try {
+                listener.attemptCompleted(run, attempt, supplierNanos, actualValue, supplierFailure, matched);
+            } catch (RuntimeException e) {
+                logListenerFailure(listener, e);
+            }
+        }
+    }
+
+    @Override
+    public void waitCompleted(RetryRun run, int attempt, long waitNanos) {
+        for (RetryListener listener : listeners) {
+            try {
+                listener.waitCompleted(run, attempt, waitNanos);
+            } catch (RuntimeException e) {
+                logListenerFailure(listener, e);
+            }
+        }
+    }
+
+    @Override
+    public void runCompleted(RetryRun run, boolean passed) {
+        for (RetryListener listener : listeners) {
+            try {
+                listener.runCompleted(run, passed);
+            } catch (RuntimeException e) {
+                logListenerFailure(listener, e);
+            }
+        }
+    }
+
+    private static void logListenerFailure(RetryListener listener, RuntimeException e) {
+        LOG.log(Level.WARNING, "Retry listener failed: " + listener, e);
+    }
+}
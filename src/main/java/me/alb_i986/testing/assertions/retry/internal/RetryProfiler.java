@@ -0,0 +1,305 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import me.alb_i986.testing.assertions.AssertRetry;
+import me.alb_i986.testing.assertions.retry.RetryListener;
+import me.alb_i986.testing.assertions.retry.RetryRun;
+
+/**
+ * Accounts for the time spent by retry assertions, grouped by call site, i.e. by calling method,
+ * failure explanation and expectation, so that one can tell which assertions are worth tuning.
+ * <p>
+ * Disabled by default. Enable it either by setting the system property {@value #REPORT_FILE_PROPERTY}
+ * to the path of the report file, or programmatically via {@link #enable(File)}.
+ * Once enabled, all of the retry assertions are profiled, and the report is written
+ * when the JVM shuts down. It can also be written on demand via {@link #writeReport()}.
+ * <p>
+ * The report lists the call sites from the most to the least expensive, in terms of total wall time.
+ */
+public class RetryProfiler extends RetryListener {
+
+    private static final Logger LOG = Logger.getLogger(AssertRetry.class.getName());
+
+    public static final String REPORT_FILE_PROPERTY = "assertretry.profiler.report";
+
+    private static final CodeSource LIBRARY_CODE_SOURCE = AssertRetry.class.getProtectionDomain().getCodeSource();
+    private static final String[] PLATFORM_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "com.sun."};
+    private static final String LIBRARY_PACKAGE = AssertRetry.class.getPackage().getName() + ".";
+
+    /**
+     * Whether the classes in the library package, found in the call stacks so far, belong to the library,
+     * so that each class is loaded at most once.
+     */
+    private static final ConcurrentMap<String, Boolean> LIBRARY_CLASSES = new ConcurrentHashMap<>();
+
+    private static volatile RetryProfiler instance;
+
+    static {
+        String reportFile = System.getProperty(REPORT_FILE_PROPERTY);
+        if (reportFile != null && !reportFile.trim().isEmpty()) {
+            enable(new File(reportFile.trim()));
+        }
+    }
+
+    private final File reportFile;
+    private final ConcurrentMap<String, CallSiteStats> statsByCallSite = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, RunStats> statsByRun = new ConcurrentHashMap<>();
+
+    protected RetryProfiler(File reportFile) {
+        this.reportFile = reportFile;
+    }
+
+    /**
+     * Enables the profiler, unless already enabled.
+     *
+     * @param reportFile where to write the report to when the JVM shuts down
+     * @return the profiler
+     */
+    public static synchronized RetryProfiler enable(File reportFile) {
+        if (instance == null) {
+            final RetryProfiler profiler = new RetryProfiler(reportFile);
+            Runtime.getRuntime().addShutdownHook(new Thread("assert-retry profiler report") {
+                @Override
+                public void run() {
+                    profiler.writeReport();
+                }
+            });
+            instance = profiler;
+        }
+        return instance;
+    }
+
+    /**
+     * @return the profiler, if enabled; null otherwise
+     */
+    public static RetryProfiler getInstance() {
+        return instance;
+    }
+
+    @Override
+    public void runStarted(RetryRun run) {
+        String callSite = findCaller() + ": " + (run.getFailureExplanation().trim().isEmpty() ? ""
+                : "\"" + run.getFailureExplanation().trim() + "\" ") + run.describeExpectation();
+        CallSiteStats stats = statsByCallSite.get(callSite);
+        if (stats == null) {
+            CallSiteStats newStats = new CallSiteStats(callSite);
+            stats = statsByCallSite.putIfAbsent(callSite, newStats);
+            if (stats == null) {
+                stats = newStats;
+            }
+        }
+        statsByRun.put(run.getId(), new RunStats(stats));
+    }
+
+    @Override
+    public void attemptCompleted(RetryRun run, int attempt, long supplierNanos,
+                                 Object actualValue, Throwable supplierFailure, Boolean matched) {
+        RunStats stats = statsByRun.get(run.getId());
+        if (stats != null) {
+            stats.attempts++;
+            stats.supplierNanos += supplierNanos;
+        }
+    }
+
+    @Override
+    public void waitCompleted(RetryRun run, int attempt, long waitNanos) {
+        RunStats stats = statsByRun.get(run.getId());
+        if (stats != null) {
+            stats.waitNanos += waitNanos;
+        }
+    }
+
+    @Override
+    public void runCompleted(RetryRun run, boolean passed) {
+        RunStats stats = statsByRun.remove(run.getId());
+        if (stats != null) {
+            stats.callSite.add(stats, run.getElapsedTimeNanos(), passed);
+        }
+    }
+
+    /**
+     * @return the report, listing the call sites from the most to the least expensive
+     */
+    public String report() {
+        List<CallSiteRow> ranking = new ArrayList<>();
+        for (CallSiteStats stats : statsByCallSite.values()) {
+            ranking.add(stats.snapshot());
+        }
+        Collections.sort(ranking, new Comparator<CallSiteRow>() {
+            @Override
+            public int compare(CallSiteRow a, CallSiteRow b) {
+                return Long.compare(b.totalNanos, a.totalNanos);
+            }
+        });
+        long totalNanos = 0;
+        int runs = 0;
+        for (CallSiteRow row : ranking) {
+            totalNanos += row.totalNanos;
+            runs += row.runs;
+        }
+        StringBuilder report = new StringBuilder(String.format("Retry assertions profile: %d call sites, %d assertions, %s in total%n",
+                ranking.size(), runs, prettyPrintNanos(totalNanos)));
+        int rank = 1;
+        for (CallSiteRow row : ranking) {
+            report.append(String.format("#%d %s%n", rank++, row.callSite))
+                    .append(String.format("    total %s, waiting %s, in the supplier %s; %d assertions (%d failed), %d attempts (max %d per assertion)%n",
+                            prettyPrintNanos(row.totalNanos), prettyPrintNanos(row.waitNanos),
+                            prettyPrintNanos(row.supplierNanos), row.runs, row.failures,
+                            row.attempts, row.maxAttemptsPerRun));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes the {@link #report()} to the report file.
+     */
+    public void writeReport() {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(reportFile), "UTF-8")) {
+            writer.write(report());
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Cannot write the retry profiler report to " + reportFile, e);
+        }
+    }
+
+    /**
+     * @return the first method in the call stack which does not belong to this library
+     */
+    private static String findCaller() {
+        for (StackTraceElement frame : new Throwable().getStackTrace()) {
+            if (!isLibraryClass(frame.getClassName())) {
+                return frame.toString();
+            }
+        }
+        return "unknown caller";
+    }
+
+    /**
+     * Matches the platform and the library by package name. The classes in the library package are looked up
+     * once, and told apart by code source, so that the callers sharing the package of the library,
+     * e.g. its own tests, are still reported.
+     */
+    private static boolean isLibraryClass(String className) {
+        for (String platformPackage : PLATFORM_PACKAGES) {
+            if (className.startsWith(platformPackage)) {
+                return true;
+            }
+        }
+        if (!className.startsWith(LIBRARY_PACKAGE)) {
+            return false;
+        }
+        Boolean libraryClass = LIBRARY_CLASSES.get(className);
+        if (libraryClass == null) {
+            libraryClass = isInLibraryCodeSource(className);
+            LIBRARY_CLASSES.put(className, libraryClass);
+        }
+        return libraryClass;
+    }
+
+    private static boolean isInLibraryCodeSource(String className) {
+        try {
+            CodeSource codeSource = Class.forName(className, false, RetryProfiler.class.getClassLoader())
+                    .getProtectionDomain().getCodeSource();
+            return codeSource != null && LIBRARY_CODE_SOURCE != null
+                    && codeSource.getLocation().equals(LIBRARY_CODE_SOURCE.getLocation());
+        } catch (ClassNotFoundException | SecurityException e) {
+            return false;
+        }
+    }
+
+    private static String prettyPrintNanos(long nanos) {
+        return TimeUtils.prettyPrint(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    private static class CallSiteStats {
+
+        private final String callSite;
+        private int runs;
+        private int failures;
+        private int attempts;
+        private int maxAttemptsPerRun;
+        private long totalNanos;
+        private long waitNanos;
+        private long supplierNanos;
+
+        CallSiteStats(String callSite) {
+            this.callSite = callSite;
+        }
+
+        synchronized void add(RunStats run, long elapsedNanos, boolean passed) {
+            this.runs++;
+            if (!passed) {
+                this.failures++;
+            }
+            this.attempts += run.attempts;
+            this.maxAttemptsPerRun = Math.max(maxAttemptsPerRun, run.attempts);
+            this.totalNanos += elapsedNanos;
+            this.waitNanos += run.waitNanos;
+            this.supplierNanos += run.supplierNanos;
+        }
+
+        /**
+         * @return the figures so far, which are not affected by the runs completed afterwards
+         */
+        synchronized CallSiteRow snapshot() {
+            return new CallSiteRow(callSite, runs, failures, attempts, maxAttemptsPerRun,
+                    totalNanos, waitNanos, supplierNanos);
+        }
+    }
+
+    /**
+     * The figures of a call site at a given time, as listed in the report.
+     */
+    private static class CallSiteRow {
+
+        private final String callSite;
+        private final int runs;
+        private final int failures;
+        private final int attempts;
+        private final int maxAttemptsPerRun;
+        private final long totalNanos;
+        private final long waitNanos;
+        private final long supplierNanos;
+
+        CallSiteRow(String callSite, int runs, int failures, int attempts, int maxAttemptsPerRun,
+                    long totalNanos, long waitNanos, long supplierNanos) {
+            this.callSite = callSite;
+            this.runs = runs;
+            this.failures = failures;
+            this.attempts = attempts;
+            this.maxAttemptsPerRun = maxAttemptsPerRun;
+            this.totalNanos = totalNanos;
+            this.waitNanos = waitNanos;
+            this.supplierNanos = supplierNanos;
+        }
+    }
+
+    /**
+     * The figures of a single assertion, accessed only by the thread running it.
+     */
+    private static class RunStats {
+
+        private final CallSiteStats callSite;
+        private int attempts;
+        private long waitNanos;
+        private long supplierNanos;
+
+        RunStats(CallSiteStats callSite) {
+            this.callSite = callSite;
+        }
+    }
+}
@@ -5,11 +5,15 @@ import org.joda.time.format.PeriodFormatter;
 import org.joda.time.format.PeriodFormatterBuilder;
 
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class TimeUtils {
 
     private static final String SPACE = " ";
 
+    private static final Pattern DURATION_PART = Pattern.compile("\\s*(\\d+)\\s*(ms|h|m|s)?\\s*");
+
     private static final PeriodFormatter JODA_FORMATTER = new PeriodFormatterBuilder()
             .appendHours()
             .appendSuffix("h")
@@ -47,4 +51,33 @@ public class TimeUtils {
     public static String prettyPrint(long millis) {
         return JODA_FORMATTER.print(new Duration(millis).toPeriod());
     }
+
+    /**
+     * Parses a duration in the format printed by {@link #prettyPrint(long)}, e.g. "1m 30s", "500ms" or "2h".
+     * A number without a unit is taken as milliseconds.
+     *
+     * @return the number of milliseconds
+     * @throws IllegalArgumentException if the duration is not in the expected format
+     */
+    public static long parseMillis(String duration) {
+        if (duration == null || duration.trim().isEmpty()) {
+            throw new IllegalArgumentException("null or empty duration");
+        }
+        Matcher matcher = DURATION_PART.matcher(duration);
+        long millis = 0;
+        int end = 0;
+        while (end < duration.length() && matcher.find(end) && matcher.start() == end) {
+            long value = Long.parseLong(matcher.group(1));
+            String unit = matcher.group(2);
+            millis += "h".equals(unit) ? TimeUnit.HOURS.toMillis(value)
+                    : "m".equals(unit) ? TimeUnit.MINUTES.toMillis(value)
+                    : "s".equals(unit) ? TimeUnit.SECONDS.toMillis(value)
+                    : value;
+            end = matcher.end();
+        }
+        if (end != duration.length()) {
+            throw new IllegalArgumentException("invalid duration: '" + duration + "' (expected e.g. '1m 30s' or '500ms')");
+        }
+        return millis;
+    }
 }
@@ -28,10 +28,33 @@ public class Timeout {
      * @return true if the timeout has expired since the last invocation to {@link #restart()}
      */
     public boolean isExpired() {
-        return getElapsedTimeMillis() > timeoutUnit.toMillis(timeout);
+        return getElapsedTimeNanos() > timeoutUnit.toNanos(timeout);
     }
 
     public long getElapsedTimeMillis() {
-        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimeNanos);
+        return TimeUnit.NANOSECONDS.toMillis(getElapsedTimeNanos());
+    }
+
+    /**
+     * @return how long before the timeout expires; 0 if already expired
+     */
+    public long getRemainingTimeNanos() {
+        return isExpired() ? 0 : timeoutUnit.toNanos(timeout) - getElapsedTimeNanos();
+    }
+
+    public long getElapsedTimeNanos() {
+        return System.nanoTime() - startTimeNanos;
+    }
+
+    /**
+     * @return a new timeout, whose duration is this one's multiplied by the given factor, and at least 1 nanosecond
+     */
+    public Timeout scale(double multiplier) {
+        return new Timeout(Math.max(1, Math.round(timeoutUnit.toNanos(timeout) * multiplier)), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return TimeUtils.prettyPrint(timeoutUnit.toMillis(timeout));
     }
 }
@@ -0,0 +1,280 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import me.alb_i986.testing.assertions.AssertRetry;
+import me.alb_i986.testing.assertions.retry.RetryConfigBuilder;
+
+/**
+ * Named timing profiles, overriding the {@link RetryConfigBuilder.DefaultValues default values}
+ * of the wait strategy, max attempts and timeout, so that the same suite can poll tightly on a fast local machine
+ * and wait longer on a shared CI agent, without recompiling.
+ * <p>
+ * The profiles are loaded once, from the file {@value #PROPERTIES_FILE} in the root of the classpath, if any,
+ * and from the system properties, which take precedence.
+ * The format is documented in {@link RetryConfigBuilder#profile(String)}.
+ * The resolved profiles are logged when loaded.
+ */
+public class TimingProfiles {
+
+    private static final Logger LOG = Logger.getLogger(AssertRetry.class.getName());
+
+    public static final String PROPERTIES_FILE = "assert-retry.properties";
+    public static final String TIME_MULTIPLIER_PROPERTY = "assertretry.timeMultiplier";
+    public static final String DEFAULT_PROFILE_PROPERTY = "assertretry.defaultProfile";
+    public static final String PROFILE_PROPERTY_PREFIX = "assertretry.profile.";
+
+    private static final String SLEEP = "sleep";
+    private static final String MAX_ATTEMPTS = "maxAttempts";
+    private static final String TIMEOUT = "timeout";
+
+    private final double timeMultiplier;
+    private final Map<String, Profile> profiles = new LinkedHashMap<>();
+    private final Profile defaultProfile;
+    private final Runnable defaultWaitStrategy;
+
+    /**
+     * @throws IllegalArgumentException in case of invalid or unknown properties
+     */
+    TimingProfiles(Properties properties) {
+        String multiplier = properties.getProperty(TIME_MULTIPLIER_PROPERTY, "1").trim();
+        try {
+            this.timeMultiplier = Double.parseDouble(multiplier);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(TIME_MULTIPLIER_PROPERTY + ": not a number: '" + multiplier + "'");
+        }
+        if (!(timeMultiplier > 0)) {
+            throw new IllegalArgumentException(TIME_MULTIPLIER_PROPERTY + " must be positive");
+        }
+
+        for (String key : new TreeSet<>(properties.stringPropertyNames())) {
+            if (!key.startsWith(PROFILE_PROPERTY_PREFIX)) {
+                continue;
+            }
+            String nameAndSetting = key.substring(PROFILE_PROPERTY_PREFIX.length());
+            int dot = nameAndSetting.lastIndexOf('.');
+            if (dot <= 0) {
+                throw new IllegalArgumentException(key + ": expected " + PROFILE_PROPERTY_PREFIX + "<profile>.<setting>");
+            }
+            String name = nameAndSetting.substring(0, dot);
+            Profile profile = profiles.get(name);
+            if (profile == null) {
+                profile = new Profile(name);
+                profiles.put(name, profile);
+            }
+            profile.set(key, nameAndSetting.substring(dot + 1), properties.getProperty(key).trim(), timeMultiplier);
+        }
+
+        String defaultProfileName = properties.getProperty(DEFAULT_PROFILE_PROPERTY);
+        this.defaultProfile = defaultProfileName == null || defaultProfileName.trim().isEmpty() ? null
+                : getProfile(defaultProfileName.trim());
+        this.defaultWaitStrategy = timeMultiplier == 1 ? RetryConfigBuilder.DefaultValues.WAIT_STRATEGY
+                : WaitStrategies.sleep(scale(TimeUnit.SECONDS.toMillis(1), timeMultiplier), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the profiles configured in {@value #PROPERTIES_FILE} and in the system properties,
+     * loaded on the first invocation
+     * @throws IllegalStateException if the configuration is invalid
+     */
+    public static TimingProfiles getInstance() {
+        if (Holder.INVALID_CONFIGURATION != null) {
+            throw new IllegalStateException("Invalid timing profiles: " + Holder.INVALID_CONFIGURATION.getMessage(),
+                    Holder.INVALID_CONFIGURATION);
+        }
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Handy for the assertions which do not resolve any profile, so that they do not fail
+     * because of an invalid configuration, which is logged as a warning when loaded.
+     *
+     * @return the same as {@link #getInstance()}, or null if the configuration is invalid
+     */
+    public static TimingProfiles getInstanceIfValid() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @return true if {@value #DEFAULT_PROFILE_PROPERTY} is set, even if the configuration is invalid
+     */
+    public static boolean isDefaultProfileConfigured() {
+        return Holder.DEFAULT_PROFILE_CONFIGURED;
+    }
+
+    private static class Holder {
+        private static final TimingProfiles INSTANCE;
+        private static final RuntimeException INVALID_CONFIGURATION;
+        private static final boolean DEFAULT_PROFILE_CONFIGURED;
+
+        static {
+            TimingProfiles instance = null;
+            RuntimeException invalidConfiguration = null;
+            boolean defaultProfileConfigured = false;
+            try {
+                Properties properties = new Properties();
+                boolean fromFile = loadProperties(properties);
+                String defaultProfileName = properties.getProperty(DEFAULT_PROFILE_PROPERTY);
+                defaultProfileConfigured = defaultProfileName != null && !defaultProfileName.trim().isEmpty();
+                instance = new TimingProfiles(properties);
+                if (fromFile || !properties.isEmpty()) {
+                    LOG.info("Timing profiles loaded" + (fromFile ? " from " + PROPERTIES_FILE : "") + ": " + instance);
+                }
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                invalidConfiguration = e;
+                LOG.warning("Invalid timing profiles, ignored unless a profile is used: " + e.getMessage());
+            }
+            INSTANCE = instance;
+            INVALID_CONFIGURATION = invalidConfiguration;
+            DEFAULT_PROFILE_CONFIGURED = defaultProfileConfigured;
+        }
+    }
+
+    /**
+     * Loads the properties from {@value #PROPERTIES_FILE}, if any, and then from the system properties.
+     *
+     * @return true if the file was found
+     */
+    private static boolean loadProperties(Properties properties) {
+        boolean fromFile = false;
+        try (InputStream in = TimingProfiles.class.getClassLoader().getResourceAsStream(PROPERTIES_FILE)) {
+            if (in != null) {
+                properties.load(in);
+                fromFile = true;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot read " + PROPERTIES_FILE, e);
+        }
+        Properties systemProperties = System.getProperties();
+        for (String key : systemProperties.stringPropertyNames()) {
+            if (key.startsWith(PROFILE_PROPERTY_PREFIX) || key.equals(TIME_MULTIPLIER_PROPERTY)
+                    || key.equals(DEFAULT_PROFILE_PROPERTY)) {
+                properties.setProperty(key, systemProperties.getProperty(key));
+            }
+        }
+        return fromFile;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no profile with the given name exists
+     */
+    public Profile getProfile(String name) {
+        Profile profile = profiles.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("unknown timing profile '" + name + "'; known profiles: "
+                    + profiles.keySet());
+        }
+        return profile;
+    }
+
+    public List<Profile> getProfiles() {
+        return Collections.unmodifiableList(new ArrayList<>(profiles.values()));
+    }
+
+    /**
+     * @return the profile to apply when none is specified; null if none
+     */
+    public Profile getDefaultProfile() {
+        return defaultProfile;
+    }
+
+    public double getTimeMultiplier() {
+        return timeMultiplier;
+    }
+
+    /**
+     * @return the wait strategy to use when neither the assertion nor its profile specifies one:
+     * {@link RetryConfigBuilder.DefaultValues#WAIT_STRATEGY}, scaled by the time multiplier
+     */
+    public Runnable getDefaultWaitStrategy() {
+        return defaultWaitStrategy;
+    }
+
+    private static long scale(long millis, double timeMultiplier) {
+        return Math.max(1, Math.round(millis * timeMultiplier));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("time multiplier " + timeMultiplier + ", default wait: " + defaultWaitStrategy);
+        s.append(", default profile ").append(defaultProfile == null ? "none" : "'" + defaultProfile.getName() + "'");
+        for (Profile profile : profiles.values()) {
+            s.append("; ").append(profile);
+        }
+        return s.toString();
+    }
+
+    /**
+     * A named set of timings. Any of them may be null, meaning "use the default value".
+     * The times are already scaled by the time multiplier.
+     */
+    public static class Profile {
+
+        private final String name;
+        private Long sleepMillis;
+        private Integer maxAttempts;
+        private Long timeoutMillis;
+
+        Profile(String name) {
+            this.name = name;
+        }
+
+        private void set(String key, String setting, String value, double timeMultiplier) {
+            try {
+                switch (setting) {
+                    case SLEEP:
+                        sleepMillis = scale(TimeUtils.parseMillis(value), timeMultiplier);
+                        break;
+                    case MAX_ATTEMPTS:
+                        maxAttempts = Integer.parseInt(value);
+                        if (maxAttempts < 1) {
+                            throw new IllegalArgumentException("maxAttempts < 1");
+                        }
+                        break;
+                    case TIMEOUT:
+                        timeoutMillis = scale(TimeUtils.parseMillis(value), timeMultiplier);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown setting; expected one of "
+                                + SLEEP + ", " + MAX_ATTEMPTS + ", " + TIMEOUT);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(key + "=" + value + ": " + e.getMessage(), e);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Long getSleepMillis() {
+            return sleepMillis;
+        }
+
+        public Integer getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public Long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "timing profile '" + name + "': sleep "
+                    + (sleepMillis == null ? "default" : TimeUtils.prettyPrint(sleepMillis))
+                    + ", max attempts " + (maxAttempts == null ? "default" : maxAttempts)
+                    + ", timeout " + (timeoutMillis == null ? "default" : TimeUtils.prettyPrint(timeoutMillis));
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline reader of the trace files written by {@link TraceRecorder}.
+ * <p>
+ * Allows to summarize a trace (supplier latencies, attempts and time needed to pass),
+ * and to replay it under a different configuration, answering questions like
+ * "would 5 attempts, 2s apart, have been enough?".
+ * <p>
+ * Can be run from the command line:
+ * <pre>
+ * java -cp assert-retry.jar:... me.alb_i986.testing.assertions.retry.internal.TraceReader trace.bin [maxAttempts sleepMillis [timeoutMillis]]
+ * </pre>
+ */
+public class TraceReader {
+
+    protected TraceReader() {
+        // static class
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1 && args.length != 3 && args.length != 4) {
+            System.err.println("Usage: TraceReader <trace file> [<maxAttempts> <sleepMillis> [<timeoutMillis>]]");
+            System.exit(2);
+        }
+        List<Run> runs = read(new File(args[0]));
+        System.out.println(summarize(runs));
+        if (args.length > 1) {
+            long timeoutMillis = args.length == 4 ? Long.parseLong(args[3]) : Long.MAX_VALUE;
+            System.out.println(replay(runs, null, Integer.parseInt(args[1]), Long.parseLong(args[2]), timeoutMillis));
+        }
+    }
+
+    /**
+     * Reads all of the runs recorded in the given trace file, in order of appearance.
+     *
+     * @throws IOException if the file cannot be read, or if it is not a valid trace file
+     */
+    public static List<Run> read(File traceFile) throws IOException {
+        Map<String, Run> runs = new LinkedHashMap<>();
+        try (FileChannel channel = FileChannel.open(traceFile.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 6 || buffer.getInt() != TraceRecorder.MAGIC) {
+                throw new IOException("Not a retry trace file: " + traceFile);
+            }
+            short version = buffer.getShort();
+            if (version != TraceRecorder.VERSION) {
+                throw new IOException("Unsupported trace version " + version + ": " + traceFile);
+            }
+            try {
+                while (buffer.hasRemaining()) {
+                    Attempt attempt = readAttempt(buffer);
+                    String runKey = attempt.runStartMillis + "#" + attempt.runId;
+                    Run run = runs.get(runKey);
+                    if (run == null) {
+                        run = new Run(attempt.runStartMillis, attempt.runId, attempt.maxAttempts);
+                        runs.put(runKey, run);
+                    }
+                    run.attempts.add(attempt);
+                }
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Truncated trace file: " + traceFile, e);
+            }
+        }
+        return new ArrayList<>(runs.values());
+    }
+
+    private static Attempt readAttempt(ByteBuffer buffer) {
+        byte outcome = buffer.get();
+        long runStartMillis = buffer.getLong();
+        int runId = buffer.getInt();
+        int attempt = buffer.getInt();
+        int maxAttempts = buffer.getInt();
+        long elapsedNanos = buffer.getLong();
+        long supplierNanos = buffer.getLong();
+        byte valueType = buffer.get();
+        byte[] text = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(text);
+        return new Attempt(runStartMillis, runId, attempt, maxAttempts, elapsedNanos, supplierNanos,
+                outcome, parseValue(valueType, new String(text, TraceRecorder.UTF_8)));
+    }
+
+    private static Object parseValue(byte valueType, String text) {
+        switch (valueType) {
+            case TraceRecorder.VALUE_STRING:
+                return text;
+            case TraceRecorder.VALUE_INTEGER:
+                return Integer.valueOf(text);
+            case TraceRecorder.VALUE_LONG:
+                return Long.valueOf(text);
+            case TraceRecorder.VALUE_DOUBLE:
+                return Double.valueOf(text);
+            case TraceRecorder.VALUE_FLOAT:
+                return Float.valueOf(text);
+            case TraceRecorder.VALUE_SHORT:
+                return Short.valueOf(text);
+            case TraceRecorder.VALUE_BYTE:
+                return Byte.valueOf(text);
+            case TraceRecorder.VALUE_BOOLEAN:
+                return Boolean.valueOf(text);
+            case TraceRecorder.VALUE_CHARACTER:
+                return text.charAt(0);
+            default:
+                return new Rendering(text);
+        }
+    }
+
+    /**
+     * @return a human readable report about the given runs, including the percentiles of the supplier latency,
+     *         of the number of attempts and of the time needed to pass
+     */
+    public static String summarize(List<Run> runs) {
+        List<Long> supplierNanos = new ArrayList<>();
+        List<Long> timesToPassNanos = new ArrayList<>();
+        List<Long> attemptsToPass = new ArrayList<>();
+        for (Run run : runs) {
+            for (Attempt attempt : run.getAttempts()) {
+                supplierNanos.add(attempt.getSupplierNanos());
+            }
+            Attempt passing = run.getPassingAttempt();
+            if (passing != null) {
+                timesToPassNanos.add(passing.getElapsedNanos());
+                attemptsToPass.add((long) passing.getAttempt());
+            }
+        }
+        StringBuilder report = new StringBuilder()
+                .append(String.format("Runs: %d (passed: %d, failed: %d), attempts: %d",
+                        runs.size(), timesToPassNanos.size(), runs.size() - timesToPassNanos.size(), supplierNanos.size()))
+                .append("\n    Supplier latency: ").append(describeDurations(supplierNanos))
+                .append("\n    Time to pass:     ").append(describeDurations(timesToPassNanos))
+                .append("\n    Attempts to pass: ");
+        long[] sortedAttempts = sort(attemptsToPass);
+        if (sortedAttempts.length == 0) {
+            report.append("n/a");
+        } else {
+            report.append(String.format("p50=%d p90=%d p99=%d max=%d",
+                    percentile(sortedAttempts, 50), percentile(sortedAttempts, 90),
+                    percentile(sortedAttempts, 99), sortedAttempts[sortedAttempts.length - 1]));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Simulates the given runs under a different configuration.
+     * <p>
+     * The values observed during the recorded run are assumed to hold until the next recorded attempt:
+     * a simulated attempt starting at time {@code t} sees the value supplied by the latest recorded attempt
+     * started before {@code t}, and takes as long as that recorded attempt did.
+     * Supplier failures are treated as non-matching values.
+     * <p>
+     * The matcher is checked against the {@link Attempt#getValue() recorded values}: strings, numbers, booleans
+     * and characters are recorded as they were, hence e.g. {@code is("DONE")} or {@code greaterThan(0)} can match them.
+     * Values of any other type are only available as their rendering, hence they never match, whatever the matcher.
+     *
+     * @param matcher the matcher to check the recorded values against;
+     *                if null, the recorded outcome is used instead
+     * @param timeoutMillis {@link Long#MAX_VALUE} for no timeout
+     */
+    public static Replay replay(List<Run> runs, Matcher<?> matcher,
+                                int maxAttempts, long sleepMillis, long timeoutMillis) {
+        long sleepNanos = TimeUnit.MILLISECONDS.toNanos(sleepMillis);
+        long timeoutNanos = timeoutMillis == Long.MAX_VALUE ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<Long> timesToPassNanos = new ArrayList<>();
+        for (Run run : runs) {
+            List<Attempt> recorded = run.getAttempts();
+            long now = 0;
+            for (int i = 1; i <= maxAttempts; i++) {
+                if (i > 1) {
+                    if (now > timeoutNanos) {
+                        break;
+                    }
+                    now += sleepNanos;
+                }
+                Attempt observed = recorded.get(0);
+                for (Attempt candidate : recorded) {
+                    if (candidate.getElapsedNanos() - candidate.getSupplierNanos() <= now) {
+                        observed = candidate;
+                    }
+                }
+                now += observed.getSupplierNanos();
+                boolean matched = matcher == null ? observed.isMatch()
+                        : !observed.isSupplierFailure() && !observed.isRenderingOnly()
+                                && matcher.matches(observed.getValue());
+                if (matched) {
+                    timesToPassNanos.add(now);
+                    break;
+                }
+            }
+        }
+        return new Replay(runs.size(), timesToPassNanos, maxAttempts, sleepMillis, timeoutMillis);
+    }
+
+    private static String describeDurations(List<Long> nanos) {
+        long[] sorted = sort(nanos);
+        if (sorted.length == 0) {
+            return "n/a";
+        }
+        return String.format("p50=%s p90=%s p99=%s max=%s",
+                formatNanos(percentile(sorted, 50)), formatNanos(percentile(sorted, 90)),
+                formatNanos(percentile(sorted, 99)), formatNanos(sorted[sorted.length - 1]));
+    }
+
+    private static String formatNanos(long nanos) {
+        return String.format("%.3fms", nanos / 1e6);
+    }
+
+    private static long[] sort(List<Long> values) {
+        long[] sorted = new long[values.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = values.get(i);
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Nearest-rank percentile of a sorted, non-empty array.
+     */
+    static long percentile(long[] sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * All of the attempts recorded for a single execution of a retry assertion.
+     */
+    public static class Run {
+
+        private final long startTimeMillis;
+        private final int id;
+        private final int maxAttempts;
+        private final List<Attempt> attempts = new ArrayList<>();
+
+        Run(long startTimeMillis, int id, int maxAttempts) {
+            this.startTimeMillis = startTimeMillis;
+            this.id = id;
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getStartTimeMillis() {
+            return startTimeMillis;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public List<Attempt> getAttempts() {
+            return Collections.unmodifiableList(attempts);
+        }
+
+        /**
+         * @return the attempt which made the assertion pass, or null if it never passed
+         */
+        public Attempt getPassingAttempt() {
+            for (Attempt attempt : attempts) {
+                if (attempt.isMatch()) {
+                    return attempt;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A single recorded attempt.
+     */
+    public static class Attempt {
+
+        private final long runStartMillis;
+        private final int runId;
+        private final int attempt;
+        private final int maxAttempts;
+        private final long elapsedNanos;
+        private final long supplierNanos;
+        private final byte outcome;
+        private final Object value;
+
+        Attempt(long runStartMillis, int runId, int attempt, int maxAttempts, long elapsedNanos,
+                long supplierNanos, byte outcome, Object value) {
+            this.runStartMillis = runStartMillis;
+            this.runId = runId;
+            this.attempt = attempt;
+            this.maxAttempts = maxAttempts;
+            this.elapsedNanos = elapsedNanos;
+            this.supplierNanos = supplierNanos;
+            this.outcome = outcome;
+            this.value = value;
+        }
+
+        /**
+         * @return the wall-clock time at the end of the attempt, in millis since the epoch
+         */
+        public long getTimestampMillis() {
+            return runStartMillis + TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        public int getAttempt() {
+            return attempt;
+        }
+
+        /**
+         * @return the time elapsed from the start of the run to the end of this attempt
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public long getSupplierNanos() {
+            return supplierNanos;
+        }
+
+        public boolean isMatch() {
+            return outcome == TraceRecorder.MATCH;
+        }
+
+        public boolean isSupplierFailure() {
+            return outcome == TraceRecorder.SUPPLIER_FAILED;
+        }
+
+        /**
+         * @return true if the supplied value has not been recorded as is, but only as its (possibly truncated)
+         *         rendering, e.g. because it is neither a string, nor a number, nor a boolean, nor a character
+         */
+        public boolean isRenderingOnly() {
+            return value instanceof Rendering;
+        }
+
+        /**
+         * @return the supplied value, if a string, number, boolean or character not truncated;
+         *         otherwise the (possibly truncated) rendering of the value, or of the exception thrown by the supplier
+         */
+        public Object getValue() {
+            return value instanceof Rendering ? value.toString() : value;
+        }
+
+        /**
+         * @return the (possibly truncated) description of the supplied value,
+         *         or of the exception thrown by the supplier
+         */
+        public String getValueRendering() {
+            return value instanceof Rendering || isSupplierFailure() ? value.toString()
+                    : new StringDescription().appendValue(value).toString();
+        }
+    }
+
+    /**
+     * A value recorded as its rendering only.
+     */
+    private static class Rendering {
+
+        private final String text;
+
+        Rendering(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * The outcome of {@link #replay(List, Matcher, int, long, long)}.
+     */
+    public static class Replay {
+
+        private final int runs;
+        private final List<Long> timesToPassNanos;
+        private final int maxAttempts;
+        private final long sleepMillis;
+        private final long timeoutMillis;
+
+        Replay(int runs, List<Long> timesToPassNanos, int maxAttempts, long sleepMillis, long timeoutMillis) {
+            this.runs = runs;
+            this.timesToPassNanos = timesToPassNanos;
+            this.maxAttempts = maxAttempts;
+            this.sleepMillis = sleepMillis;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+
+        public int getPassed() {
+            return timesToPassNanos.size();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Replay with maxAttempts=%d, sleep=%s, timeout=%s: %d/%d runs would have passed. Time to pass: %s",
+                    maxAttempts, TimeUtils.prettyPrint(sleepMillis),
+                    timeoutMillis == Long.MAX_VALUE ? "none" : TimeUtils.prettyPrint(timeoutMillis),
+                    getPassed(), runs, describeDurations(timesToPassNanos));
+        }
+    }
+}
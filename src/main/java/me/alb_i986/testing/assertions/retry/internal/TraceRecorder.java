@@ -0,0 +1,241 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.StringDescription;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import me.alb_i986.testing.assertions.AssertRetry;
+import me.alb_i986.testing.assertions.retry.RetryConfigBuilder;
+import me.alb_i986.testing.assertions.retry.RetryListener;
+import me.alb_i986.testing.assertions.retry.RetryRun;
+
+/**
+ * Records every attempt of the retry assertions it listens to into an append-only binary trace file,
+ * which can then be analyzed offline by {@link TraceReader}.
+ * <p>
+ * Records are accumulated in an in-memory buffer, which is written to the file
+ * when an assertion completes, or when the buffer is full.
+ * There is a single recorder per file, shared by all of the assertions recording to it,
+ * and it is closed automatically when the JVM shuts down.
+ * <p>
+ * The format of the file is a header ({@link #MAGIC} followed by the {@link #VERSION}, as a short),
+ * followed by a sequence of records, each one made of:
+ * <pre>
+ * byte   outcome (one of MISMATCH, MATCH, SUPPLIER_FAILED, MEASURED)
+ * long   start time of the assertion, in millis since the epoch
+ * int    id of the assertion, unique within the JVM which recorded it
+ * int    attempt number
+ * int    max attempts
+ * long   nanos elapsed since the start of the assertion, at the end of the attempt
+ * long   nanos spent in the supplier
+ * byte   type of the value (one of the VALUE_ constants)
+ * short  length of the value text, in bytes (unsigned)
+ * byte[] value text, UTF-8, truncated to {@link #MAX_VALUE_BYTES} bytes
+ * </pre>
+ * Strings, numbers, booleans and characters are recorded as is ({@code String.valueOf}), so that they can be
+ * matched again when replaying; unless truncated, in which case they are recorded as {@link #VALUE_RENDERING}.
+ * Any other value is recorded as its Hamcrest rendering, and an exception thrown by the supplier
+ * as its {@code toString()}.
+ *
+ * @see RetryConfigBuilder#recordTraceTo(File)
+ */
+public class TraceRecorder extends RetryListener {
+
+    private static final Logger LOG = Logger.getLogger(AssertRetry.class.getName());
+
+    static final int MAGIC = 0x41525452; // "ARTR"
+    static final short VERSION = 2;
+
+    static final byte MISMATCH = 0;
+    static final byte MATCH = 1;
+    static final byte SUPPLIER_FAILED = 2;
+    /**
+     * An invocation measured by a latency assertion, which is not checked on its own.
+     */
+    static final byte MEASURED = 3;
+
+    static final byte VALUE_RENDERING = 0;
+    static final byte VALUE_STRING = 1;
+    static final byte VALUE_INTEGER = 2;
+    static final byte VALUE_LONG = 3;
+    static final byte VALUE_DOUBLE = 4;
+    static final byte VALUE_FLOAT = 5;
+    static final byte VALUE_SHORT = 6;
+    static final byte VALUE_BYTE = 7;
+    static final byte VALUE_BOOLEAN = 8;
+    static final byte VALUE_CHARACTER = 9;
+
+    static final int MAX_VALUE_BYTES = 256;
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FIXED_RECORD_SIZE = 1 + 8 + 4 + 4 + 4 + 8 + 8 + 1 + 2;
+
+    private static final ConcurrentMap<File, TraceRecorder> RECORDERS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread("assert-retry trace recorder shutdown") {
+            @Override
+            public void run() {
+                for (TraceRecorder recorder : RECORDERS.values()) {
+                    recorder.close();
+                }
+            }
+        });
+    }
+
+    private final File file;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private FileChannel channel;
+    private boolean failed;
+
+    protected TraceRecorder(File file) {
+        this.file = file;
+    }
+
+    /**
+     * @return the recorder appending to the given file, created on first use
+     */
+    public static TraceRecorder forFile(File file) {
+        File key = file.getAbsoluteFile();
+        TraceRecorder recorder = RECORDERS.get(key);
+        if (recorder == null) {
+            TraceRecorder newRecorder = new TraceRecorder(key);
+            recorder = RECORDERS.putIfAbsent(key, newRecorder);
+            if (recorder == null) {
+                recorder = newRecorder;
+            }
+        }
+        return recorder;
+    }
+
+    @Override
+    public synchronized void attemptCompleted(RetryRun run, int attempt, long supplierNanos,
+                                              Object actualValue, Throwable supplierFailure, Boolean matched) {
+        if (failed) {
+            return;
+        }
+        byte outcome = supplierFailure != null ? SUPPLIER_FAILED : matched == null ? MEASURED : matched ? MATCH : MISMATCH;
+        byte valueType = supplierFailure != null ? VALUE_RENDERING : typeOf(actualValue);
+        String text = supplierFailure != null ? supplierFailure.toString()
+                : valueType != VALUE_RENDERING ? String.valueOf(actualValue)
+                : new StringDescription().appendValue(actualValue).toString();
+        byte[] valueBytes = text.getBytes(UTF_8);
+        if (valueBytes.length > MAX_VALUE_BYTES) {
+            if (valueType != VALUE_RENDERING) {
+                valueType = VALUE_RENDERING;
+                valueBytes = new StringDescription().appendValue(actualValue).toString().getBytes(UTF_8);
+            }
+            valueBytes = truncate(valueBytes);
+        }
+
+        if (buffer.remaining() < FIXED_RECORD_SIZE + valueBytes.length) {
+            flush();
+        }
+        buffer.put(outcome)
+                .putLong(run.getStartTimeMillis())
+                .putInt(run.getId())
+                .putInt(attempt)
+                .putInt(run.getMaxAttempts())
+                .putLong(run.getElapsedTimeNanos())
+                .putLong(supplierNanos)
+                .put(valueType)
+                .putShort((short) valueBytes.length)
+                .put(valueBytes);
+    }
+
+    private static byte typeOf(Object value) {
+        return value instanceof String ? VALUE_STRING
+                : value instanceof Integer ? VALUE_INTEGER
+                : value instanceof Long ? VALUE_LONG
+                : value instanceof Double ? VALUE_DOUBLE
+                : value instanceof Float ? VALUE_FLOAT
+                : value instanceof Short ? VALUE_SHORT
+                : value instanceof Byte ? VALUE_BYTE
+                : value instanceof Boolean ? VALUE_BOOLEAN
+                : value instanceof Character ? VALUE_CHARACTER
+                : VALUE_RENDERING;
+    }
+
+    /**
+     * Truncates UTF-8 bytes to {@link #MAX_VALUE_BYTES}, without splitting a multi-byte character.
+     */
+    static byte[] truncate(byte[] utf8) {
+        if (utf8.length <= MAX_VALUE_BYTES) {
+            return utf8;
+        }
+        int length = MAX_VALUE_BYTES;
+        while (length > 0 && (utf8[length] & 0xC0) == 0x80) { // utf8[length] is a continuation byte
+            length--;
+        }
+        return Arrays.copyOf(utf8, length);
+    }
+
+    @Override
+    public synchronized void runCompleted(RetryRun run, boolean passed) {
+        flush();
+    }
+
+    /**
+     * Writes the buffered records, if any, to the trace file.
+     */
+    public synchronized void flush() {
+        if (failed || buffer.position() == 0) {
+            return;
+        }
+        try {
+            if (channel == null) {
+                open();
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            failed = true; // do not fail the assertions because of the recorder
+            LOG.log(Level.WARNING, "Cannot write the retry trace to " + file + ". Recording disabled.", e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    public synchronized void close() {
+        flush();
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Cannot close the retry trace file " + file, e);
+            }
+            channel = null;
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(6).putInt(MAGIC).putShort(VERSION);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "trace recorder to " + file;
+    }
+}
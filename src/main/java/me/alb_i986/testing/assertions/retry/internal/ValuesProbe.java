@@ -0,0 +1,76 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import me.alb_i986.testing.assertions.retry.ConditionalSupplier;
+import me.alb_i986.testing.assertions.retry.Supplier;
+
+/**
+ * Probes a {@link Supplier} of actual values against a Hamcrest {@link Matcher}.
+ * <p>
+ * If the supplier is a {@link ConditionalSupplier} reporting an unchanged value,
+ * the value is neither checked nor recorded again.
+ */
+class ValuesProbe<T> extends Probe {
+
+    private final Supplier<T> actualValuesSupplier;
+    private final Matcher<? super T> matcher;
+    private final List<T> suppliedValues = new ArrayList<>();
+    private T lastValue;
+    private boolean unchanged;
+
+    ValuesProbe(Supplier<T> actualValuesSupplier, Matcher<? super T> matcher) {
+        this.actualValuesSupplier = actualValuesSupplier;
+        this.matcher = matcher;
+    }
+
+    @Override
+    void fetch() throws Exception {
+        lastValue = actualValuesSupplier.get();
+        unchanged = !suppliedValues.isEmpty() && actualValuesSupplier instanceof ConditionalSupplier
+                && ((ConditionalSupplier<T>) actualValuesSupplier).isUnchanged();
+        if (!unchanged) {
+            suppliedValues.add(lastValue);
+        }
+    }
+
+    @Override
+    boolean check() {
+        return !unchanged && matcher.matches(lastValue); // if unchanged, it did not match the last time
+    }
+
+    @Override
+    T getLastValue() {
+        return lastValue;
+    }
+
+    @Override
+    String describeLastMismatch() {
+        if (unchanged) {
+            return "The actual value has not changed.";
+        }
+        Description description = new StringDescription()
+                .appendText("\nExpected: ")
+                .appendDescriptionOf(matcher)
+                .appendText("\n     but: ");
+        matcher.describeMismatch(lastValue, description);
+        return description.toString();
+    }
+
+    @Override
+    void describeActualValues(Description description) {
+        for (T failingActualValue : suppliedValues) {
+            describeValue(description, failingActualValue);
+        }
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendDescriptionOf(matcher);
+    }
+}
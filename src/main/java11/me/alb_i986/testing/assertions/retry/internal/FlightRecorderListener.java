@@ -0,0 +1,227 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import me.alb_i986.testing.assertions.retry.RetryListener;
+import me.alb_i986.testing.assertions.retry.RetryRun;
+
+/**
+ * Emits JFR events for retry assertions, so that their activity can be lined up with GC, I/O,
+ * lock contention etc. in JDK Mission Control:
+ * <ul>
+ *     <li>{@value #ATTEMPT_EVENT}: spans an attempt, from the end of the previous wait</li>
+ *     <li>{@value #WAIT_EVENT}: spans the wait between two attempts</li>
+ *     <li>{@value #OUTCOME_EVENT}: spans the whole assertion, from the first attempt to the final outcome</li>
+ * </ul>
+ * The events are emitted by the thread running the assertion.
+ * Assertions which started before the events were enabled are not recorded.
+ * <p>
+ * Registered automatically by {@link FlightRecorderSupport}, only while {@link #isEnabled() enabled}.
+ */
+public class FlightRecorderListener extends RetryListener implements FlightRecorderSupport.Switchable {
+
+    static final String ATTEMPT_EVENT = "me.alb_i986.assertretry.RetryAttempt";
+    static final String WAIT_EVENT = "me.alb_i986.assertretry.RetryWait";
+    static final String OUTCOME_EVENT = "me.alb_i986.assertretry.RetryOutcome";
+
+    private static final int MAX_VALUE_LENGTH = 256;
+
+    private static final EventType ATTEMPT_TYPE = EventType.getEventType(RetryAttempt.class);
+    private static final EventType WAIT_TYPE = EventType.getEventType(RetryWait.class);
+    private static final EventType OUTCOME_TYPE = EventType.getEventType(RetryOutcome.class);
+
+    private final ConcurrentMap<Integer, RunEvents> eventsByRun = new ConcurrentHashMap<>();
+
+    /**
+     * @return true if any recording has any of the events enabled
+     */
+    @Override
+    public boolean isEnabled() {
+        return ATTEMPT_TYPE.isEnabled() || WAIT_TYPE.isEnabled() || OUTCOME_TYPE.isEnabled();
+    }
+
+    @Override
+    public void runStarted(RetryRun run) {
+        if (!isEnabled()) {
+            return;
+        }
+        RunEvents events = new RunEvents(run);
+        events.outcome.begin();
+        events.attempt.begin();
+        eventsByRun.put(run.getId(), events);
+    }
+
+    @Override
+    public void attemptCompleted(RetryRun run, int attempt, long supplierNanos,
+                                 Object actualValue, Throwable supplierFailure, Boolean matched) {
+        RunEvents events = eventsByRun.get(run.getId());
+        if (events == null) {
+            return;
+        }
+        events.attempts = attempt;
+        RetryAttempt event = events.attempt;
+        event.end();
+        if (event.shouldCommit()) {
+            event.runId = run.getId();
+            event.assertion = events.assertion;
+            event.attempt = attempt;
+            event.maxAttempts = run.getMaxAttempts();
+            event.supplierDuration = supplierNanos;
+            event.outcome = supplierFailure != null ? "SUPPLIER_FAILED" : matched == null ? "MEASURED" : matched ? "MATCH" : "MISMATCH";
+            event.actualValue = truncate(supplierFailure != null ? supplierFailure.toString() : String.valueOf(actualValue));
+            event.commit();
+        }
+        events.wait = new RetryWait();
+        events.wait.begin();
+    }
+
+    @Override
+    public void waitCompleted(RetryRun run, int attempt, long waitNanos) {
+        RunEvents events = eventsByRun.get(run.getId());
+        if (events == null) {
+            return;
+        }
+        RetryWait event = events.wait;
+        event.end();
+        if (event.shouldCommit()) {
+            event.runId = run.getId();
+            event.assertion = events.assertion;
+            event.attempt = attempt;
+            event.waitDuration = waitNanos;
+            event.commit();
+        }
+        events.attempt = new RetryAttempt();
+        events.attempt.begin();
+    }
+
+    @Override
+    public void runCompleted(RetryRun run, boolean passed) {
+        RunEvents events = eventsByRun.remove(run.getId());
+        if (events == null) {
+            return;
+        }
+        RetryOutcome event = events.outcome;
+        event.end();
+        if (event.shouldCommit()) {
+            event.runId = run.getId();
+            event.assertion = events.assertion;
+            event.attempts = events.attempts;
+            event.maxAttempts = run.getMaxAttempts();
+            event.passed = passed;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return how many runs have started and not completed yet
+     */
+    int runsInProgress() {
+        return eventsByRun.size();
+    }
+
+    private static String truncate(String s) {
+        return s.length() <= MAX_VALUE_LENGTH ? s : s.substring(0, MAX_VALUE_LENGTH) + "...";
+    }
+
+    /**
+     * The events in progress for a run.
+     */
+    private static class RunEvents {
+
+        private final String assertion;
+        private final RetryOutcome outcome = new RetryOutcome();
+        private RetryAttempt attempt = new RetryAttempt();
+        private RetryWait wait;
+        private int attempts;
+
+        RunEvents(RetryRun run) {
+            String explanation = run.getFailureExplanation().trim();
+            this.assertion = (explanation.isEmpty() ? "" : explanation + ": ") + run.describeExpectation();
+        }
+    }
+
+    @Name(ATTEMPT_EVENT)
+    @Label("Retry Attempt")
+    @Category("Assert Retry")
+    @Description("An attempt of a retry assertion: invoking the supplier and checking its value")
+    @StackTrace(false)
+    static class RetryAttempt extends Event {
+
+        @Label("Run Id")
+        int runId;
+
+        @Label("Assertion")
+        String assertion;
+
+        @Label("Attempt")
+        int attempt;
+
+        @Label("Max Attempts")
+        int maxAttempts;
+
+        @Label("Supplier Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long supplierDuration;
+
+        @Label("Outcome")
+        @Description("MATCH, MISMATCH, SUPPLIER_FAILED, or MEASURED for a latency assertion")
+        String outcome;
+
+        @Label("Actual Value")
+        String actualValue;
+    }
+
+    @Name(WAIT_EVENT)
+    @Label("Retry Wait")
+    @Category("Assert Retry")
+    @Description("The wait between two attempts of a retry assertion")
+    @StackTrace(false)
+    static class RetryWait extends Event {
+
+        @Label("Run Id")
+        int runId;
+
+        @Label("Assertion")
+        String assertion;
+
+        @Label("Attempt")
+        @Description("The attempt which preceded the wait")
+        int attempt;
+
+        @Label("Wait Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long waitDuration;
+    }
+
+    @Name(OUTCOME_EVENT)
+    @Label("Retry Outcome")
+    @Category("Assert Retry")
+    @Description("A retry assertion, from the first attempt to the final outcome")
+    static class RetryOutcome extends Event {
+
+        @Label("Run Id")
+        int runId;
+
+        @Label("Assertion")
+        String assertion;
+
+        @Label("Attempts")
+        int attempts;
+
+        @Label("Max Attempts")
+        int maxAttempts;
+
+        @Label("Passed")
+        boolean passed;
+    }
+}
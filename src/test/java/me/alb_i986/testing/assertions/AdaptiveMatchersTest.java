@@ -0,0 +1,99 @@
+package me.alb_i986.testing.assertions;
+
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static me.alb_i986.testing.assertions.AdaptiveMatchers.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class AdaptiveMatchersTest {
+
+    private final AtomicInteger slowEvaluations = new AtomicInteger();
+    private final AtomicInteger cheapEvaluations = new AtomicInteger();
+
+    /**
+     * An expensive matcher, which always matches.
+     */
+    private final Matcher<Object> slow = new BaseMatcher<Object>() {
+        @Override
+        public boolean matches(Object item) {
+            slowEvaluations.incrementAndGet();
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        }
+
+        @Override
+        public void describeTo(Description description) {
+            description.appendText("slow");
+        }
+    };
+
+    /**
+     * A cheap matcher, matching only "DONE".
+     */
+    private final Matcher<Object> cheap = new BaseMatcher<Object>() {
+        @Override
+        public boolean matches(Object item) {
+            cheapEvaluations.incrementAndGet();
+            return "DONE".equals(item);
+        }
+
+        @Override
+        public void describeTo(Description description) {
+            description.appendText("done");
+        }
+    };
+
+    @Test
+    public void shouldEvaluateTheCheapAndFailingChildrenFirst() {
+        Matcher<Object> matcher = adaptiveAllOf(slow, cheap);
+
+        for (int i = 0; i < 10; i++) {
+            assertFalse(matcher.matches("RUNNING"));
+        }
+
+        assertEquals("the slow child should be evaluated only until the cheap one is known to fail",
+                1, slowEvaluations.get());
+        assertEquals(10, cheapEvaluations.get());
+        assertTrue(matcher.matches("DONE"));
+        assertEquals(2, slowEvaluations.get());
+    }
+
+    @Test
+    public void mismatchShouldDescribeTheChildWhichFailedWithoutEvaluatingTheOthers() {
+        Matcher<Object> matcher = adaptiveAllOf(slow, cheap);
+        matcher.matches("RUNNING");
+        matcher.matches("RUNNING");
+        int slowEvaluationsBefore = slowEvaluations.get();
+
+        StringDescription mismatch = new StringDescription();
+        matcher.describeMismatch("RUNNING", mismatch);
+
+        assertEquals("done was \"RUNNING\"", mismatch.toString());
+        assertEquals(slowEvaluationsBefore, slowEvaluations.get());
+    }
+
+    @Test
+    public void theDescriptionShouldFollowTheDeclaredOrder() {
+        Matcher<String> matcher = adaptiveAllOf(startsWith("a"), endsWith("z"));
+        for (int i = 0; i < 10; i++) {
+            matcher.matches("abc");
+        }
+
+        assertEquals("(a string starting with \"a\" and a string ending with \"z\")",
+                StringDescription.toString(matcher));
+        StringDescription mismatch = new StringDescription();
+        matcher.describeMismatch("xyz", mismatch);
+        assertEquals("a string starting with \"a\" was \"xyz\"", mismatch.toString());
+    }
+}
@@ -0,0 +1,74 @@
+package me.alb_i986.testing.assertions;
+
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static me.alb_i986.testing.assertions.ParallelMatchers.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class ParallelMatchersTest {
+
+    private static final int SIZE = 100000;
+
+    private final List<Integer> ascending = new ArrayList<>();
+
+    {
+        for (int i = 0; i < SIZE; i++) {
+            ascending.add(i);
+        }
+    }
+
+    @Test
+    public void hasItemShouldMatchWhenAnyItemMatches() {
+        assertTrue(parallelHasItem(is(SIZE - 1)).matches(ascending));
+        assertFalse(parallelHasItem(is(SIZE)).matches(ascending));
+        assertFalse(parallelHasItem(is(1)).matches(Collections.emptyList()));
+    }
+
+    @Test
+    public void hasItemMismatchShouldNotListTheCollection() {
+        Matcher<Iterable<? super Integer>> matcher = parallelHasItem(is(-1));
+
+        StringDescription mismatch = new StringDescription();
+        matcher.describeMismatch(ascending, mismatch);
+
+        assertThat(mismatch.toString(), is("none of the " + SIZE + " items matched"));
+        assertThat(StringDescription.toString(matcher), is("a collection containing is <-1>"));
+    }
+
+    @Test
+    public void everyItemShouldMatchWhenAllOfTheItemsMatch() {
+        assertTrue(parallelEveryItem(greaterThanOrEqualTo(0)).matches(ascending));
+        assertFalse(parallelEveryItem(lessThan(SIZE - 1)).matches(ascending));
+        assertTrue(parallelEveryItem(is(1)).matches(Collections.emptyList()));
+    }
+
+    @Test
+    public void everyItemMismatchShouldNameOnlyTheFirstOffendingElements() {
+        Matcher<Iterable<Integer>> matcher = parallelEveryItem(lessThan(SIZE - 12));
+
+        StringDescription mismatch = new StringDescription();
+        matcher.describeMismatch(ascending, mismatch);
+
+        assertThat(mismatch.toString(), startsWith("at least 10 of the " + SIZE + " items did not match:\n" +
+                "          [" + (SIZE - 12) + "] <" + (SIZE - 12) + "> was equal to <" + (SIZE - 12) + ">"));
+        assertThat(mismatch.toString(), not(containsString("[" + (SIZE - 2) + "]")));
+    }
+
+    @Test
+    public void everyItemMismatchShouldCountTheOffendingElementsWhenFew() {
+        Matcher<Iterable<Integer>> matcher = parallelEveryItem(lessThan(SIZE - 3));
+
+        StringDescription mismatch = new StringDescription();
+        matcher.describeMismatch(ascending, mismatch);
+
+        assertThat(mismatch.toString(), startsWith("3 of the " + SIZE + " items did not match:"));
+        assertThat(mismatch.toString(), endsWith("[" + (SIZE - 1) + "] <" + (SIZE - 1) + "> was greater than <" + (SIZE - 3) + ">"));
+    }
+}
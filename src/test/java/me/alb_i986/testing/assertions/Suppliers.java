@@ -1,5 +1,7 @@
 package me.alb_i986.testing.assertions;
 
+import java.util.List;
+
 import me.alb_i986.testing.assertions.retry.Supplier;
 
 public class Suppliers {
@@ -47,4 +49,25 @@ public class Suppliers {
             return i--;
         }
     }
+
+    /**
+     * Supply the given values, in order, then keep supplying the last one.
+     */
+    public static <T> Supplier<T> fromList(List<T> values) {
+        return new ListSupplier<>(values);
+    }
+
+    private static class ListSupplier<T> implements Supplier<T> {
+        private final List<T> values;
+        private int i;
+
+        public ListSupplier(List<T> values) {
+            this.values = values;
+        }
+
+        @Override
+        public T get() {
+            return values.get(Math.min(i++, values.size() - 1));
+        }
+    }
 }
@@ -0,0 +1,138 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.junit.Test;
+
+import java.net.ConnectException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import me.alb_i986.testing.assertions.retry.internal.WaitStrategies;
+
+import static me.alb_i986.testing.assertions.AssertRetry.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile boolean down = true;
+
+    private final Supplier<String> service = new Supplier<String>() {
+        @Override
+        public String get() throws Exception {
+            calls.incrementAndGet();
+            if (down) {
+                throw new ConnectException("Connection refused");
+            }
+            return "UP";
+        }
+    };
+
+    @Test
+    public void shouldFailFastOnceOpen() {
+        CircuitBreaker breaker = CircuitBreaker.named("fail-fast", 3, 1, TimeUnit.HOURS);
+
+        try {
+            assertThat(service, is("UP"), configureRetry()
+                    .circuitBreaker(breaker)
+                    .retryOnException(true)
+                    .maxAttempts(10)
+                    .waitStrategy(WaitStrategies.sleep(1, TimeUnit.MILLISECONDS)));
+            fail("assertion should have failed");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), startsWith("Assertion failed after 3/10 attempts: circuit open ("
+                    + "circuit breaker 'fail-fast'"));
+            assertThat(e.getCause(), instanceOf(ConnectException.class));
+        }
+        assertEquals(3, calls.get());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        try {
+            assertThat(service, is("UP"), configureRetry()
+                    .circuitBreaker("fail-fast")
+                    .maxAttempts(10));
+            fail("assertion should have failed");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), startsWith("Assertion failed after 0/10 attempts: circuit open"));
+        }
+        assertEquals("the supplier should not be invoked while the circuit is open", 3, calls.get());
+    }
+
+    @Test
+    public void shouldCloseOnceTheProbeSucceeds() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.named("half-open", 1, 20, TimeUnit.MILLISECONDS);
+        breaker.recordFailure(new ConnectException());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        Thread.sleep(30);
+        down = false;
+        assertThat(service, is("UP"), configureRetry()
+                .circuitBreaker(breaker)
+                .maxAttempts(1));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void failedProbeShouldReopenTheCircuit() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.named("reopen", 1, 20, TimeUnit.MILLISECONDS);
+        breaker.recordFailure(new ConnectException());
+        Thread.sleep(30);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse("only one probe at a time", breaker.tryAcquire());
+
+        breaker.recordFailure(new ConnectException());
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void aProbeNeverCompletedShouldBeReplacedByANewOne() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.named("lost-probe", 1, 20, TimeUnit.MILLISECONDS);
+        breaker.recordFailure(new ConnectException());
+        Thread.sleep(30);
+        assertTrue(breaker.tryAcquire());
+        assertFalse("only one probe at a time", breaker.tryAcquire());
+
+        Thread.sleep(30); // the probe is lost, e.g. its assertion died
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    public void anErrorThrownByTheSupplierShouldBeRecordedAsAFailure() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.named("error", 1, 1, TimeUnit.HOURS);
+        final StackOverflowError error = new StackOverflowError();
+        try {
+            assertThat(new Supplier<String>() {
+                @Override
+                public String get() {
+                    throw error;
+                }
+            }, is("UP"), configureRetry()
+                    .circuitBreaker(breaker));
+            fail("error expected");
+        } catch (StackOverflowError expected) {
+            assertSame(error, expected);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertSame(error, breaker.getLastFailure());
+    }
+
+    @Test
+    public void shouldBeSharedByName() {
+        CircuitBreaker breaker = CircuitBreaker.named("shared", 2, 1, TimeUnit.SECONDS);
+
+        assertSame(breaker, CircuitBreaker.named("shared"));
+        assertSame(breaker, CircuitBreaker.named("shared", 2, 1000, TimeUnit.MILLISECONDS));
+        try {
+            CircuitBreaker.named("shared", 3, 1, TimeUnit.SECONDS);
+            fail("different settings should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("already exists with different settings"));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class FileTailTest {
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private File logFile;
+    private FileTail tail;
+
+    @Before
+    public void setUp() {
+        logFile = new File(tmp.getRoot(), "app.log");
+        tail = new FileTail(logFile);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        tail.close();
+    }
+
+    @Test
+    public void shouldReturnOnlyTheLinesAppendedSinceThePreviousAttempt() throws Exception {
+        append("first\nsecond\n");
+        assertThat(tail.newLines().get(), contains("first", "second"));
+
+        append("third\n");
+        assertThat(tail.newLines().get(), contains("third"));
+        assertThat(tail.newLines().get(), is(empty()));
+    }
+
+    @Test
+    public void shouldSkipTheExistingLinesIfAsked() throws Exception {
+        append("existing 1\nexisting 2\nincompl");
+        tail.skipExistingLines();
+
+        append("ete\nnew\n");
+        assertThat(tail.newLines().get(), contains("incomplete", "new"));
+    }
+
+    @Test
+    public void skippingTheLinesOfAMissingFileShouldReturnAllOfItsLinesOnceCreated() throws Exception {
+        tail.skipExistingLines();
+
+        append("created\n");
+        assertThat(tail.newLines().get(), contains("created"));
+    }
+
+    @Test
+    public void shouldReturnALineOnlyOnceComplete() throws Exception {
+        append("incompl");
+        assertThat(tail.newLines().get(), is(empty()));
+
+        append("ete\r\nnext");
+        assertThat(tail.newLines().get(), contains("incomplete"));
+    }
+
+    @Test
+    public void missingFileShouldBeTreatedAsEmpty() throws Exception {
+        assertThat(tail.newLines().get(), is(empty()));
+
+        append("created\n");
+        assertThat(tail.newLines().get(), contains("created"));
+    }
+
+    @Test
+    public void shouldStartOverWhenTheFileIsTruncated() throws Exception {
+        append("a long line before truncation\n");
+        tail.newLines().get();
+
+        Files.write(logFile.toPath(), "after\n".getBytes("UTF-8"), StandardOpenOption.TRUNCATE_EXISTING);
+        assertThat(tail.newLines().get(), contains("after"));
+    }
+
+    @Test
+    public void shouldFollowTheNewFileWhenRotated() throws Exception {
+        append("old 1\n");
+        tail.newLines().get();
+        append("old 2\n");
+        assertTrue(logFile.renameTo(new File(tmp.getRoot(), "app.log.1")));
+        append("new 1\n");
+
+        assertThat(tail.newLines().get(), contains("old 2", "new 1"));
+    }
+
+    @Test
+    public void waitStrategyShouldReturnWhenTheFileChanges() throws Exception {
+        append("a\n");
+        tail.newLines().get();
+        new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(200);
+                    append("b\n");
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }.start();
+
+        long start = System.nanoTime();
+        tail.waitForChanges(20, TimeUnit.SECONDS).run();
+
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), lessThan(15L));
+        assertThat(tail.newLines().get(), contains("b"));
+    }
+
+    private void append(String text) throws IOException {
+        Files.write(logFile.toPath(), text.getBytes(Charset.forName("UTF-8")),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
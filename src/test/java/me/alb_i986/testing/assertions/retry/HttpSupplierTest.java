@@ -0,0 +1,114 @@
+package me.alb_i986.testing.assertions.retry;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import me.alb_i986.testing.assertions.retry.internal.AssertRetryEngine;
+import me.alb_i986.testing.assertions.retry.internal.RetryAssertionError;
+import me.alb_i986.testing.assertions.retry.internal.WaitStrategies;
+
+import static me.alb_i986.testing.assertions.AssertRetry.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class HttpSupplierTest {
+
+    private HttpServer server;
+    private volatile String content = "PENDING";
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private URL url;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/status", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requests.incrementAndGet();
+                String etag = "\"" + content.hashCode() + "\"";
+                exchange.getResponseHeaders().add("ETag", etag);
+                if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModified.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                } else {
+                    byte[] body = (content + "\nsecond line\n").getBytes("UTF-8");
+                    exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=UTF-8");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                }
+                exchange.close();
+            }
+        });
+        server.start();
+        url = new URL("http://localhost:" + server.getAddress().getPort() + "/status");
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void notModifiedResponsesShouldNotBeRecordedAgain() {
+        AssertRetryEngine retry = new AssertRetryEngine(configureRetry()
+                .maxAttempts(3)
+                .waitStrategy(WaitStrategies.sleep(10, TimeUnit.MILLISECONDS))
+                .build());
+
+        try {
+            retry.assertThat("", new HttpSupplier(url), eventually(HttpSupplier.body(containsString("DONE"))));
+            fail("exception expected");
+        } catch (RetryAssertionError expected) {
+            assertThat(expected.getMessage(), endsWith("Actual values (in order of appearance):\n" +
+                    "         - <200 PENDING\nsecond line\n>"));
+        }
+        assertThat(requests.get(), is(3));
+        assertThat(notModified.get(), is(2));
+    }
+
+    @Test
+    public void shouldEventuallySeeTheNewContent() throws Exception {
+        HttpSupplier supplier = new HttpSupplier(url);
+        assertThat(supplier.get().getBody(), startsWith("PENDING"));
+        content = "DONE";
+
+        HttpSupplier.Response response = supplier.get();
+
+        assertThat(supplier.isUnchanged(), is(false));
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getBody(), startsWith("DONE"));
+    }
+
+    @Test
+    public void streamUntilShouldStopReadingAtTheFirstMatchingLine() throws Exception {
+        HttpSupplier supplier = new HttpSupplier(url)
+                .streamUntil(equalTo("PENDING"));
+
+        assertThat(supplier.get().getBody(), is("PENDING\n"));
+    }
+
+    @Test
+    public void jsonShouldBeDecodedAsUtf8UnlessAnotherCharsetIsSpecified() {
+        assertEquals(Charset.forName("UTF-8"), HttpSupplier.charsetOf("application/json"));
+        assertEquals(Charset.forName("UTF-8"), HttpSupplier.charsetOf("application/problem+json"));
+        assertEquals(Charset.forName("UTF-16"), HttpSupplier.charsetOf("application/json; charset=UTF-16"));
+        assertEquals(Charset.forName("ISO-8859-1"), HttpSupplier.charsetOf("text/plain"));
+        assertEquals(Charset.forName("ISO-8859-1"), HttpSupplier.charsetOf(null));
+    }
+}
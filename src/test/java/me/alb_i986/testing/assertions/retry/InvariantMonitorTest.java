@@ -0,0 +1,98 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static me.alb_i986.testing.assertions.AssertRetry.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class InvariantMonitorTest {
+
+    @Test
+    public void shouldPassWhenTheInvariantAlwaysHolds() throws Exception {
+        final CountDownLatch sampled = new CountDownLatch(3);
+        InvariantMonitor<Integer> monitor = monitor("no errors", new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                sampled.countDown();
+                return 0;
+            }
+        }, is(0), 1, TimeUnit.MILLISECONDS);
+
+        assertTrue(sampled.await(10, TimeUnit.SECONDS));
+        monitor.close();
+
+        assertThat(monitor.getSamples(), greaterThanOrEqualTo(3L));
+    }
+
+    @Test
+    public void shouldReportTheFirstViolation() throws Exception {
+        final CountDownLatch sampled = new CountDownLatch(5);
+        final AtomicInteger sample = new AtomicInteger();
+        InvariantMonitor<Integer> monitor = monitor("no errors", new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                sampled.countDown();
+                int i = sample.incrementAndGet();
+                return i == 2 ? 3 : i == 3 ? 4 : 0;
+            }
+        }, is(0), 1, TimeUnit.MILLISECONDS);
+        assertTrue(sampled.await(10, TimeUnit.SECONDS));
+
+        try {
+            monitor.close();
+            fail("exception expected");
+        } catch (AssertionError expected) {
+            assertThat(expected.getMessage(), startsWith("Invariant violated 2/"));
+            assertThat(expected.getMessage(), containsString("no errors\n" +
+                    "    Expected: always is <0>\n" +
+                    "    First violation: sample #2 at "));
+            assertThat(expected.getMessage(), endsWith("\n         - <3>"));
+        }
+        assertFalse(monitor.isHolding());
+    }
+
+    @Test
+    public void closeShouldWaitForTheCurrentSampleWithoutInterruptingIt() throws Exception {
+        final CountDownLatch sampling = new CountDownLatch(1);
+        InvariantMonitor<Integer> monitor = monitor("no errors", new Supplier<Integer>() {
+            @Override
+            public Integer get() throws Exception {
+                sampling.countDown();
+                Thread.sleep(100); // an interrupt would make it throw, i.e. a violation
+                return 0;
+            }
+        }, is(0), 1, TimeUnit.MILLISECONDS);
+        assertTrue(sampling.await(10, TimeUnit.SECONDS));
+
+        monitor.close();
+
+        assertTrue(monitor.isHolding());
+    }
+
+    @Test
+    public void shouldReportAnErrorThrownByTheSupplier() throws Exception {
+        final CountDownLatch sampled = new CountDownLatch(1);
+        final StackOverflowError error = new StackOverflowError();
+        InvariantMonitor<Integer> monitor = monitor("no errors", new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                sampled.countDown();
+                throw error;
+            }
+        }, is(0), 1, TimeUnit.MILLISECONDS);
+        assertTrue(sampled.await(10, TimeUnit.SECONDS));
+
+        try {
+            monitor.close();
+            fail("exception expected");
+        } catch (AssertionError expected) {
+            assertThat(expected.getMessage(), endsWith("the supplier of actual values failed: " + error));
+            assertThat(expected.getCause(), sameInstance((Throwable) error));
+        }
+    }
+}
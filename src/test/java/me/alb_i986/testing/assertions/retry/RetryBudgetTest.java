@@ -0,0 +1,137 @@
+package me.alb_i986.testing.assertions.retry;
+
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.concurrent.TimeUnit;
+
+import me.alb_i986.testing.assertions.Suppliers;
+import me.alb_i986.testing.assertions.retry.internal.WaitStrategies;
+
+import static me.alb_i986.testing.assertions.AssertRetry.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RetryBudgetTest {
+
+    @Rule
+    public RetryBudgetRule retryBudget = new RetryBudgetRule(300, TimeUnit.MILLISECONDS);
+
+    private final Supplier<String> neverDone = new Supplier<String>() {
+        @Override
+        public String get() {
+            return "RUNNING";
+        }
+    };
+
+    private final RetryConfigBuilder generousTimeout = configureRetry()
+            .maxAttempts(Integer.MAX_VALUE)
+            .timeoutAfter(10, TimeUnit.SECONDS)
+            .waitStrategy(WaitStrategies.sleep(10, TimeUnit.MILLISECONDS));
+
+    @Test
+    public void assertionsShouldShareTheBudgetOfTheTest() {
+        long start = System.nanoTime();
+        try {
+            assertThat("first", neverDone, is("DONE"), generousTimeout);
+            fail("assertion should have failed");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), containsString("Retry budget exhausted (retry budget of 300ms). first"));
+        }
+        try {
+            assertThat("second", neverDone, is("DONE"), configureRetry()
+                    .maxAttempts(10)
+                    .timeoutAfter(10, TimeUnit.SECONDS)
+                    .waitStrategy(WaitStrategies.sleep(10, TimeUnit.MILLISECONDS)));
+            fail("assertion should have failed");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), startsWith("Assertion failed after 1/10 attempts"));
+            assertThat(e.getMessage(), containsString("Retry budget exhausted"));
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(5000L));
+
+        assertTrue(retryBudget.getBudget().isExhausted());
+        String report = retryBudget.getBudget().report();
+        assertThat(report, startsWith("Retry budget: 300ms of 300ms used"));
+        assertThat(report, containsString("(failed): \"first\" is \"DONE\""));
+        assertThat(report, containsString("(failed): \"second\" is \"DONE\""));
+    }
+
+    @Test
+    public void budgetShouldBeChargedOnlyForTheAssertions() {
+        assertThat("done", new Supplier<String>() {
+            @Override
+            public String get() {
+                return "DONE";
+            }
+        }, is("DONE"), generousTimeout);
+
+        assertFalse(retryBudget.getBudget().isExhausted());
+        assertThat(retryBudget.getBudget().report(), containsString("(passed): \"done\" is \"DONE\""));
+    }
+
+    @Test
+    public void anAssertionWhoseMatcherThrowsShouldStopBeingCharged() throws InterruptedException {
+        try {
+            assertThat("throwing", neverDone, new BaseMatcher<String>() {
+                @Override
+                public boolean matches(Object item) {
+                    throw new IllegalStateException("matcher failure");
+                }
+
+                @Override
+                public void describeTo(Description description) {
+                    description.appendText("a throwing matcher");
+                }
+            }, generousTimeout);
+            fail("exception expected");
+        } catch (IllegalStateException expected) {
+            // the test goes on
+        }
+        Thread.sleep(400); // longer than the whole budget, but not spent in an assertion
+
+        assertThat("second", Suppliers.ascendingIntegersStartingFrom(1), is(2), generousTimeout);
+
+        assertFalse(retryBudget.getBudget().isExhausted());
+        String report = retryBudget.getBudget().report();
+        assertThat(report, containsString("(failed): \"throwing\" a throwing matcher"));
+        assertThat(report, containsString("(passed): \"second\" is <2>"));
+    }
+
+    @Test
+    public void closingANestedBudgetShouldRestoreTheOuterOne() {
+        RetryBudget nested = RetryBudget.start(1, TimeUnit.MINUTES);
+        assertThat(RetryBudget.current(), sameInstance(nested));
+
+        nested.close();
+
+        assertThat(RetryBudget.current(), sameInstance(retryBudget.getBudget()));
+    }
+
+    @Test
+    public void extensionShouldBindTheBudgetToTheTest() {
+        RetryBudgetExtension extension = new RetryBudgetExtension(1, TimeUnit.MINUTES);
+        ExtensionContext context = mock(ExtensionContext.class);
+        ExtensionContext.Store store = mock(ExtensionContext.Store.class);
+        when(context.getDisplayName()).thenReturn("test()");
+        when(context.getStore(any(ExtensionContext.Namespace.class))).thenReturn(store);
+
+        extension.beforeEach(context);
+        RetryBudget budget = RetryBudget.current();
+        assertThat(budget, not(sameInstance(retryBudget.getBudget())));
+        assertThat(configureRetry().build().getBudget(), sameInstance(budget));
+        verify(store).put(RetryBudget.class, budget);
+
+        when(store.remove(RetryBudget.class, RetryBudget.class)).thenReturn(budget);
+        extension.afterEach(context);
+        assertThat("the budget of the rule should be bound again", RetryBudget.current(),
+                sameInstance(retryBudget.getBudget()));
+    }
+}
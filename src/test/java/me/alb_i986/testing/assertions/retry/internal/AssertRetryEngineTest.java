@@ -1,19 +1,29 @@
 package me.alb_i986.testing.assertions.retry.internal;
 
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
 import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.util.concurrent.TimeUnit;
 
+import me.alb_i986.testing.assertions.retry.IntSupplier;
+import me.alb_i986.testing.assertions.retry.LongSupplier;
+import me.alb_i986.testing.assertions.retry.NumericPredicates;
 import me.alb_i986.testing.assertions.retry.RetryConfigBuilder;
+import me.alb_i986.testing.assertions.retry.RetryListener;
+import me.alb_i986.testing.assertions.retry.RetryRun;
 import me.alb_i986.testing.assertions.retry.Supplier;
 import me.alb_i986.testing.assertions.Suppliers;
 
 import static me.alb_i986.testing.assertions.AssertRetry.*;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
 public class AssertRetryEngineTest {
@@ -162,4 +172,98 @@ public class AssertRetryEngineTest {
             verify(supplierMock, times(2)).get();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void primitiveInt_shouldRetryAndEventuallyPass() throws Exception {
+        AssertRetryEngine retry = new AssertRetryEngine(
+                baseRetryConfig.maxAttempts(3)
+                        .build());
+
+        int actual = retry.assertThatInt("", new IntSupplier() {
+            int i = 1;
+
+            @Override
+            public int getAsInt() {
+                return i++;
+            }
+        }, NumericPredicates.intGreaterThanOrEqualTo(3));
+
+        assertThat(actual, is(3));
+    }
+
+    @Test
+    public void primitiveInt_shouldDescribeTheExpectationAsAnInt() throws Exception {
+        AssertRetryEngine retry = new AssertRetryEngine(
+                baseRetryConfig.maxAttempts(2)
+                        .build());
+
+        try {
+            retry.assertThatInt("", new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 1;
+                }
+            }, NumericPredicates.intBetween(3, 5));
+            fail("exception expected");
+        } catch (RetryAssertionError expectedException) {
+            assertThat(expectedException.getMessage(), containsString("Expected: a value between <3> and <5>\n" +
+                    "    Actual values (in order of appearance):\n" +
+                    "         - <1>\n" +
+                    "         - <1>"));
+        }
+    }
+
+    @Test
+    public void primitiveLong_shouldFailWithTheSameMessageAsTheBoxedVersion() throws Exception {
+        AssertRetryEngine retry = new AssertRetryEngine(
+                baseRetryConfig.maxAttempts(3)
+                        .build());
+        LongSupplier counter = new LongSupplier() {
+            long i = 1;
+
+            @Override
+            public long getAsLong() {
+                return i++;
+            }
+        };
+
+        try {
+            retry.assertThatLong("", counter, NumericPredicates.greaterThan(10));
+            fail("exception expected");
+        } catch (RetryAssertionError expectedException) {
+            assertThat(expectedException.getMessage(), containsString("Expected: a value greater than <10L>\n" +
+                    "    Actual values (in order of appearance):\n" +
+                    "         - <1L>\n" +
+                    "         - <2L>\n" +
+                    "         - <3L>"));
+        }
+    }
+
+    @Test
+    public void shouldNotifyTheEndOfTheRunEvenWhenTheMatcherThrows() throws Exception {
+        RetryListener listener = mock(RetryListener.class);
+        AssertRetryEngine retry = new AssertRetryEngine(
+                baseRetryConfig.listener(listener)
+                        .build());
+        final IllegalStateException matcherFailure = new IllegalStateException("matcher failure");
+
+        try {
+            retry.assertThat("", Suppliers.ascendingIntegersStartingFrom(1), new BaseMatcher<Integer>() {
+                @Override
+                public boolean matches(Object item) {
+                    throw matcherFailure;
+                }
+
+                @Override
+                public void describeTo(Description description) {
+                    description.appendText("a throwing matcher");
+                }
+            });
+            fail("exception expected");
+        } catch (IllegalStateException e) {
+            assertSame(matcherFailure, e);
+        }
+        verify(listener).runStarted(any(RetryRun.class));
+        verify(listener).runCompleted(any(RetryRun.class), eq(false));
+    }
+}
@@ -0,0 +1,130 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.StringDescription;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import me.alb_i986.testing.assertions.retry.BulkSupplier;
+
+import static me.alb_i986.testing.assertions.AssertRetry.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class EachProbeTest {
+
+    private final List<Integer> requestedKeys = new ArrayList<>();
+
+    /**
+     * Each key i is DONE from the i-th call on.
+     */
+    private final BulkSupplier<Integer, String> statuses = new BulkSupplier<Integer, String>() {
+        private int calls;
+
+        @Override
+        public Map<Integer, String> get(Set<Integer> keys) {
+            calls++;
+            requestedKeys.add(keys.size());
+            Map<Integer, String> statuses = new HashMap<>();
+            for (Integer key : keys) {
+                statuses.put(key, key <= calls ? "DONE" : "RUNNING");
+            }
+            return statuses;
+        }
+    };
+
+    @Test
+    public void shouldAskForThePendingKeysOnly() {
+        assertEachEventually(range(1, 3), statuses, is("DONE"), configureRetry()
+                .maxAttempts(3)
+                .waitStrategy(WaitStrategies.sleep(1, TimeUnit.MILLISECONDS)));
+
+        assertEquals("keys requested at each attempt", Arrays.asList(3, 2, 1), requestedKeys);
+    }
+
+    @Test
+    public void shouldSummarizeThePendingKeys() {
+        try {
+            assertEachEventually("jobs completed", range(1, EachProbe.MAX_LISTED_KEYS + 5), statuses, is("DONE"),
+                    configureRetry()
+                            .maxAttempts(2)
+                            .waitStrategy(WaitStrategies.sleep(1, TimeUnit.MILLISECONDS)));
+            fail("assertion should have failed");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), startsWith("Assertion failed after 2/2 attempts"));
+            assertThat(e.getMessage(), containsString("jobs completed" +
+                    "\n    Expected: each of 25 keys: is \"DONE\"" +
+                    "\n    Still pending: 23 of 25 keys, with their last values:" +
+                    "\n         - <3>: \"RUNNING\"" +
+                    "\n         - <4>: \"RUNNING\""));
+            assertThat(e.getMessage(), containsString("\n         ... and 3 more"));
+            assertThat(e.getMessage(), endsWith("\n    Pending keys after each attempt: 24, 23"));
+        }
+    }
+
+    @Test
+    public void missingKeysShouldBeConsideredNull() throws Exception {
+        EachProbe<String, String> probe = new EachProbe<>(Arrays.asList("a", "b"), new BulkSupplier<String, String>() {
+            @Override
+            public Map<String, String> get(Set<String> keys) {
+                Map<String, String> values = new HashMap<>();
+                values.put("a", "x");
+                return values;
+            }
+        }, nullValue());
+
+        probe.fetch();
+        assertFalse(probe.check());
+        assertEquals(Integer.valueOf(1), probe.getLastValue());
+    }
+
+    @Test
+    public void shouldTellKeysNeverSuppliedFromKeysSuppliedAsNull() {
+        try {
+            assertEachEventually(Arrays.asList("a", "b"), new BulkSupplier<String, String>() {
+                @Override
+                public Map<String, String> get(Set<String> keys) {
+                    Map<String, String> values = new HashMap<>();
+                    values.put("a", null);
+                    return values;
+                }
+            }, is("DONE"), configureRetry()
+                    .maxAttempts(2)
+                    .waitStrategy(WaitStrategies.sleep(1, TimeUnit.MILLISECONDS)));
+            fail("assertion should have failed");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), containsString("\n    Still pending: 2 of 2 keys, with their last values:" +
+                    "\n         - \"a\": null" +
+                    "\n         - \"b\": never supplied"));
+        }
+    }
+
+    @Test
+    public void shouldListOnlyTheFirstAndTheLastAttemptsOfALongSeries() throws Exception {
+        EachProbe<Integer, String> probe = new EachProbe<>(range(1, 30), statuses, is("DONE"));
+        for (int i = 0; i < 2 * EachProbe.MAX_LISTED_ATTEMPTS + 5; i++) {
+            probe.fetch();
+            probe.check();
+        }
+
+        StringDescription description = new StringDescription();
+        probe.describeFailure(description);
+
+        assertThat(description.toString(), endsWith("\n    Pending keys after each attempt: " +
+                "29, 28, 27, 26, 25, 24, 23, 22, 21, 20, ... 5 more, 14, 13, 12, 11, 10, 9, 8, 7, 6, 5"));
+    }
+
+    private static List<Integer> range(int from, int to) {
+        List<Integer> range = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            range.add(i);
+        }
+        return range;
+    }
+}
@@ -0,0 +1,132 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import me.alb_i986.testing.assertions.retry.Supplier;
+
+import static me.alb_i986.testing.assertions.AssertRetry.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class FirstOfProbeTest {
+
+    @Test
+    public void shouldPassOnTheFastestMatchAndCancelTheSlowerCalls() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        Supplier<String> slow = new Supplier<String>() {
+            @Override
+            public String get() {
+                started.countDown();
+                try {
+                    Thread.sleep(10000);
+                    return "slow";
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    return null;
+                }
+            }
+        };
+        Supplier<String> fast = new Supplier<String>() {
+            @Override
+            public String get() throws Exception {
+                started.await(); // so that the slow call is running, not just queued, when cancelled
+                return "fast";
+            }
+        };
+        long start = System.nanoTime();
+
+        String value = assertThatAnyOf(Arrays.asList(slow, fast), is("fast"),
+                configureRetry().maxAttempts(1));
+
+        assertEquals("fast", value);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(5000L));
+        assertTrue("the slower call should have been interrupted", interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldGroupTheActualValuesBySource() {
+        Map<String, Supplier<String>> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", constant("stale"));
+        replicas.put("replica-2", failing());
+        try {
+            assertThatAnyOf("entity replicated", replicas, is("fresh"), configureRetry()
+                    .maxAttempts(2)
+                    .waitStrategy(WaitStrategies.sleep(10, TimeUnit.MILLISECONDS)));
+            fail("assertion should have failed");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), startsWith("Assertion failed after 2/2 attempts"));
+            assertThat(e.getMessage(), endsWith("entity replicated" +
+                    "\n    Expected: any of [replica-1, replica-2] to supply is \"fresh\"" +
+                    "\n    Actual values by source (in order of appearance):" +
+                    "\n       replica-1:" +
+                    "\n         - \"stale\"" +
+                    "\n         - \"stale\"" +
+                    "\n       replica-2:" +
+                    "\n         - failed: java.lang.IllegalStateException: down" +
+                    "\n         - failed: java.lang.IllegalStateException: down"));
+        }
+    }
+
+    @Test
+    public void shouldFailTheAttemptOnlyIfAllOfTheSourcesFailed() {
+        try {
+            assertThatAnyOf(Arrays.asList(failing(), failing()), is("fresh"), configureRetry()
+                    .maxAttempts(2)
+                    .retryOnException(false));
+            fail("assertion should have failed");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), containsString("the supplier of actual values failed"));
+            assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+        }
+    }
+
+    @Test
+    public void shouldWrapTheFailureIfNeitherAnExceptionNorAnError() {
+        final Throwable throwable = new Throwable("neither");
+        Supplier<String> throwing = new Supplier<String>() {
+            @Override
+            public String get() {
+                return FirstOfProbeTest.<RuntimeException>sneakyThrow(throwable);
+            }
+        };
+        try {
+            assertThatAnyOf(Arrays.asList(throwing), is("fresh"), configureRetry()
+                    .maxAttempts(1)
+                    .retryOnException(false));
+            fail("assertion should have failed");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), containsString("the supplier of actual values failed"));
+            assertThat(e.getCause().getCause(), sameInstance(throwable));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> String sneakyThrow(Throwable throwable) throws E {
+        throw (E) throwable;
+    }
+
+    private static Supplier<String> constant(final String value) {
+        return new Supplier<String>() {
+            @Override
+            public String get() {
+                return value;
+            }
+        };
+    }
+
+    private static Supplier<String> failing() {
+        return new Supplier<String>() {
+            @Override
+            public String get() {
+                throw new IllegalStateException("down");
+            }
+        };
+    }
+}
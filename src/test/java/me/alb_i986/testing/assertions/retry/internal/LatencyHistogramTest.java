@@ -0,0 +1,139 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import me.alb_i986.testing.assertions.retry.RetryListener;
+import me.alb_i986.testing.assertions.retry.RetryRun;
+import me.alb_i986.testing.assertions.retry.Supplier;
+
+import static me.alb_i986.testing.assertions.AssertRetry.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldBeExactForSmallValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+        assertEquals(50.5, histogram.getMean(), 0.001);
+    }
+
+    @Test
+    public void shouldKeepTheRelativeErrorBelowTwoPercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertThat((double) histogram.getValueAtPercentile(50), closeTo(5000000, 5000000 * 0.02));
+        assertThat((double) histogram.getValueAtPercentile(99), closeTo(9900000, 9900000 * 0.02));
+        assertEquals(10000000, histogram.getMax());
+    }
+
+    @Test
+    public void latencyAssertionShouldPass() {
+        assertLatency(noop(), latencyPercentiles()
+                        .warmup(10)
+                        .percentile(99, lessThan(100.0), TimeUnit.MILLISECONDS),
+                configureRetry()
+                        .maxAttempts(50)
+                        .timeoutAfter(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void latencyAssertionShouldNotifyTheMeasuredCallsAsNeitherMatchingNorMismatching() {
+        RetryListener listener = mock(RetryListener.class);
+
+        assertLatency(noop(), latencyPercentiles()
+                        .percentile(99, lessThan(100.0), TimeUnit.MILLISECONDS),
+                configureRetry()
+                        .maxAttempts(3)
+                        .timeoutAfter(10, TimeUnit.SECONDS)
+                        .listener(listener));
+
+        verify(listener, times(3)).attemptCompleted(any(RetryRun.class), anyInt(), anyLong(),
+                isNull(), isNull(Throwable.class), isNull(Boolean.class));
+        verify(listener).runCompleted(any(RetryRun.class), eq(true));
+    }
+
+    @Test
+    public void latencyAssertionShouldReportTheDistribution() {
+        try {
+            assertLatency("slow op", sleeping(2), latencyPercentiles()
+                            .percentile(50, lessThan(1.0), TimeUnit.MICROSECONDS),
+                    configureRetry()
+                            .maxAttempts(5)
+                            .timeoutAfter(10, TimeUnit.SECONDS));
+            fail("assertion should have failed");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), startsWith("Latency assertion failed after 5/5 calls"));
+            assertThat(e.getMessage(), containsString("slow op"));
+            assertThat(e.getMessage(), containsString("Measured latency (5 calls): min="));
+            assertThat(e.getMessage(), containsString("but: p50 was "));
+        }
+    }
+
+    @Test
+    public void latencyAssertionShouldFailFastWhenTheOperationThrows() {
+        try {
+            assertLatency(throwing(), latencyPercentiles()
+                            .percentile(50, lessThan(1.0), TimeUnit.SECONDS),
+                    configureRetry()
+                            .maxAttempts(5)
+                            .retryOnException(false)
+                            .timeoutAfter(10, TimeUnit.SECONDS));
+            fail("assertion should have failed");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), containsString("the operation failed"));
+            assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+        }
+    }
+
+    private static Supplier<Object> noop() {
+        return new Supplier<Object>() {
+            @Override
+            public Object get() {
+                return null;
+            }
+        };
+    }
+
+    private static Supplier<Object> sleeping(final long millis) {
+        return new Supplier<Object>() {
+            @Override
+            public Object get() throws Exception {
+                Thread.sleep(millis);
+                return null;
+            }
+        };
+    }
+
+    private static Supplier<Object> throwing() {
+        return new Supplier<Object>() {
+            @Override
+            public Object get() {
+                throw new IllegalStateException("boom");
+            }
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static me.alb_i986.testing.assertions.AssertRetry.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class PublisherAssertionTest {
+
+    @Test
+    public void shouldPassAsSoonAsAMatchingItemIsPublished() {
+        ListPublisher<String> publisher = new ListPublisher<>(Arrays.asList("a", "b", "c", "d"), false);
+        AssertRetryEngine retry = new AssertRetryEngine(configureRetry()
+                .maxAttempts(10)
+                .timeoutAfter(5, TimeUnit.SECONDS)
+                .build());
+
+        String actual = retry.assertThat("", publisher, eventually(is("b")));
+
+        assertThat(actual, is("b"));
+        assertTrue("the subscription should have been cancelled", publisher.cancelled.get());
+    }
+
+    @Test
+    public void shouldListTheItemsReceivedWhenThePublisherCompletes() {
+        ListPublisher<String> publisher = new ListPublisher<>(Arrays.asList("a", "b"), true);
+        AssertRetryEngine retry = new AssertRetryEngine(configureRetry()
+                .maxAttempts(10)
+                .timeoutAfter(5, TimeUnit.SECONDS)
+                .build());
+
+        try {
+            retry.assertThat("", publisher, eventually(is("z")));
+            fail("exception expected");
+        } catch (RetryAssertionError expected) {
+            assertThat(expected.getMessage(), startsWith("Assertion failed after 2/10 attempts"));
+            assertThat(expected.getMessage(), containsString("The publisher completed."));
+            assertThat(expected.getMessage(), endsWith("Expected: eventually is \"z\"\n" +
+                    "    Actual values (in order of appearance):\n" +
+                    "         - \"a\"\n" +
+                    "         - \"b\""));
+        }
+    }
+
+    @Test
+    public void shouldTimeoutWhenNoMatchingItemIsPublished() {
+        ListPublisher<String> publisher = new ListPublisher<>(Arrays.asList("a"), false);
+        AssertRetryEngine retry = new AssertRetryEngine(configureRetry()
+                .maxAttempts(10)
+                .timeoutAfter(200, TimeUnit.MILLISECONDS)
+                .build());
+
+        try {
+            retry.assertThat("", publisher, eventually(is("z")));
+            fail("exception expected");
+        } catch (RetryAssertionError expected) {
+            assertThat(expected.getMessage(), containsString("Timeout reached."));
+            assertTrue("the subscription should have been cancelled", publisher.cancelled.get());
+        }
+    }
+
+    /**
+     * Publishes the given items honoring the demand, and then optionally completes.
+     */
+    private static class ListPublisher<T> implements Publisher<T> {
+
+        private final List<T> items;
+        private final boolean complete;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        ListPublisher(List<T> items, boolean complete) {
+            this.items = items;
+            this.complete = complete;
+        }
+
+        @Override
+        public void subscribe(final Subscriber<? super T> subscriber) {
+            final AtomicLong demand = new AtomicLong();
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                    demand.addAndGet(n);
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled.set(true);
+                }
+            });
+            new Thread() {
+                @Override
+                public void run() {
+                    for (T item : items) {
+                        while (demand.get() == 0 && !cancelled.get()) {
+                            Thread.yield();
+                        }
+                        if (cancelled.get()) {
+                            return;
+                        }
+                        demand.decrementAndGet();
+                        subscriber.onNext(item);
+                    }
+                    if (complete) {
+                        subscriber.onComplete();
+                    }
+                }
+            }.start();
+        }
+    }
+}
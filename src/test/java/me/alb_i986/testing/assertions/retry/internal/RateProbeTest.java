@@ -0,0 +1,80 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import me.alb_i986.testing.assertions.retry.LongSupplier;
+
+import static me.alb_i986.testing.assertions.AssertRetry.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class RateProbeTest {
+
+    @Test
+    public void firstSampleShouldOnlyEstablishTheBaseline() throws Exception {
+        RateProbe probe = new RateProbe(counter(100, 200), greaterThanOrEqualTo(0.0), TimeUnit.SECONDS, 1);
+
+        probe.fetch();
+        assertFalse(probe.check());
+        assertNull(probe.getLastValue());
+
+        probe.fetch();
+        assertTrue(probe.check());
+        assertThat(probe.getLastValue(), greaterThan(0.0));
+    }
+
+    @Test
+    public void shouldCountFromZeroAfterAReset() throws Exception {
+        RateProbe probe = new RateProbe(counter(100, 200, 50), greaterThanOrEqualTo(0.0), TimeUnit.SECONDS, 1);
+
+        probe.fetch();
+        probe.fetch();
+        probe.fetch();
+
+        assertTrue(probe.check());
+        assertThat(probe.toString(), is("a rate per second of a value equal to or greater than <0.0>"));
+    }
+
+    @Test
+    public void failureShouldListTheRatePerInterval() {
+        try {
+            assertRate("throughput", counter(100, 200, 50, 60), TimeUnit.SECONDS, 2, greaterThan(1e12),
+                    configureRetry()
+                            .maxAttempts(4)
+                            .waitStrategy(WaitStrategies.sleep(5, TimeUnit.MILLISECONDS)));
+            fail("assertion should have failed");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), startsWith("Assertion failed after 4/4 attempts"));
+            assertThat(e.getMessage(), containsString(
+                    "Expected: a rate per second (over the last 2 intervals) of a value greater than <1.0E12>"));
+            assertThat(e.getMessage(), containsString("Observed rates per second (in order of appearance):"));
+            assertThat(e.getMessage(), containsString("(+100 in "));
+            assertThat(e.getMessage(), containsString("(+50 in "));
+            assertThat(e.getMessage(), containsString(", counter reset)"));
+            assertThat(e.getMessage(), containsString("(+10 in "));
+        }
+    }
+
+    @Test
+    public void shouldPassOnceTheRateIsReached() {
+        double rate = assertRate(counter(0, 0, 1000, 2000), TimeUnit.SECONDS, greaterThan(0.0),
+                configureRetry()
+                        .maxAttempts(4)
+                        .waitStrategy(WaitStrategies.sleep(5, TimeUnit.MILLISECONDS)));
+
+        assertThat(rate, greaterThan(0.0));
+    }
+
+    private static LongSupplier counter(final long... values) {
+        return new LongSupplier() {
+            private int i;
+
+            @Override
+            public long getAsLong() {
+                return values[i++];
+            }
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import me.alb_i986.testing.assertions.retry.RetryConfigBuilder;
+
+import static me.alb_i986.testing.assertions.AssertRetry.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class ReadinessProbeTest {
+
+    private final RetryConfigBuilder baseRetryConfig = configureRetry()
+            .maxAttempts(2)
+            .waitStrategy(WaitStrategies.sleep(10, TimeUnit.MILLISECONDS));
+
+    private ServerSocket listening;
+    private InetSocketAddress listeningEndpoint;
+    private InetSocketAddress closedEndpoint;
+
+    @Before
+    public void setUp() throws IOException {
+        InetAddress localhost = InetAddress.getLoopbackAddress();
+        listening = new ServerSocket(0, 50, localhost);
+        listeningEndpoint = new InetSocketAddress(localhost, listening.getLocalPort());
+        try (ServerSocket closed = new ServerSocket(0, 50, localhost)) {
+            closedEndpoint = new InetSocketAddress(localhost, closed.getLocalPort());
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        listening.close();
+    }
+
+    @Test
+    public void shouldPassWhenAllOfTheEndpointsAreListening() {
+        new AssertRetryEngine(baseRetryConfig.build())
+                .assertListening("", Arrays.asList(listeningEndpoint));
+    }
+
+    @Test
+    public void shouldReportTheLastErrorOfEachEndpointNotListening() {
+        try {
+            new AssertRetryEngine(baseRetryConfig.build())
+                    .assertListening("", Arrays.asList(listeningEndpoint, closedEndpoint));
+            fail("exception expected");
+        } catch (RetryAssertionError expected) {
+            assertThat(expected.getMessage(), startsWith("Assertion failed after 2/2 attempts"));
+            assertThat(expected.getMessage(), containsString("Expected: all of the 2 endpoints accepting TCP connections\n" +
+                    "    Endpoints not listening (last error):\n" +
+                    "         - " + closedEndpoint + ": java.net.ConnectException"));
+            assertThat(expected.getMessage(), not(containsString(listeningEndpoint.toString())));
+        }
+    }
+
+    @Test
+    public void shouldAcceptAConnectTimeout() {
+        new AssertRetryEngine(baseRetryConfig.build())
+                .assertListening("", Arrays.asList(listeningEndpoint), 100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectANonPositiveConnectTimeout() {
+        new AssertRetryEngine(baseRetryConfig.build())
+                .assertListening("", Arrays.asList(listeningEndpoint), 0, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,80 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import me.alb_i986.testing.assertions.Suppliers;
+import me.alb_i986.testing.assertions.retry.RetryConfigBuilder;
+
+import static me.alb_i986.testing.assertions.AssertRetry.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class RetryProfilerTest {
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void shouldRankCallSitesByTotalTime() throws Exception {
+        File reportFile = new File(tmp.getRoot(), "profile.txt");
+        RetryProfiler profiler = new RetryProfiler(reportFile);
+        RetryConfigBuilder retryConfig = configureRetry()
+                .maxAttempts(3)
+                .waitStrategy(WaitStrategies.sleep(20, TimeUnit.MILLISECONDS))
+                .listener(profiler);
+
+        new AssertRetryEngine(retryConfig.build())
+                .assertThat("cheap", Suppliers.ascendingIntegersStartingFrom(1), eventually(is(1)));
+        new AssertRetryEngine(retryConfig.build())
+                .assertThat("expensive", Suppliers.ascendingIntegersStartingFrom(1), eventually(is(3)));
+
+        profiler.writeReport();
+
+        String report = new String(Files.readAllBytes(reportFile.toPath()), Charset.forName("UTF-8"));
+        assertThat(report, startsWith("Retry assertions profile: 2 call sites, 2 assertions"));
+        assertThat(report, containsString("#1 " + getClass().getName() + ".shouldRankCallSitesByTotalTime"));
+        assertThat(report, containsString("\"expensive\" eventually is <3>"));
+        assertThat(report, containsString("1 assertions (0 failed), 3 attempts (max 3 per assertion)"));
+        assertThat(report.indexOf("expensive"), lessThan(report.indexOf("cheap")));
+    }
+
+    @Test
+    public void shouldCountARunWhoseMatcherThrowsAsFailed() {
+        RetryProfiler profiler = new RetryProfiler(new File(tmp.getRoot(), "profile.txt"));
+        AssertRetryEngine retry = new AssertRetryEngine(configureRetry()
+                .maxAttempts(3)
+                .listener(profiler)
+                .build());
+
+        try {
+            retry.assertThat("throwing", Suppliers.ascendingIntegersStartingFrom(1), new BaseMatcher<Integer>() {
+                @Override
+                public boolean matches(Object item) {
+                    throw new IllegalStateException("matcher failure");
+                }
+
+                @Override
+                public void describeTo(Description description) {
+                    description.appendText("a throwing matcher");
+                }
+            });
+            fail("exception expected");
+        } catch (IllegalStateException expected) {
+            // the test goes on
+        }
+
+        String report = profiler.report();
+        assertThat(report, startsWith("Retry assertions profile: 1 call sites, 1 assertions"));
+        assertThat(report, containsString("\"throwing\" a throwing matcher"));
+        assertThat(report, containsString("1 assertions (1 failed), 0 attempts (max 0 per assertion)"));
+    }
+}
@@ -17,6 +17,17 @@ public class TimeoutTest {
         assertTrue(oneSecondTimeout.isExpired());
     }
 
+    @Test
+    public void timeoutShouldBeExpiredAsSoonAsItsDurationHasElapsed() {
+        Timeout oneMilliTimeout = new Timeout(1, TimeUnit.MILLISECONDS);
+
+        while (oneMilliTimeout.getElapsedTimeNanos() <= TimeUnit.MILLISECONDS.toNanos(1)) {
+            // spin until just past the timeout, which would not be detected when comparing millis
+        }
+
+        assertTrue(oneMilliTimeout.isExpired());
+    }
+
     @Test
     public void timeoutShouldNotBeExpiredYet() throws Exception {
         Timeout oneSecondTimeout = new Timeout(1, TimeUnit.SECONDS);
@@ -25,4 +36,12 @@ public class TimeoutTest {
 
         assertFalse(oneSecondTimeout.isExpired());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void scaledTimeoutShouldLastTheScaledDuration() {
+        Timeout scaled = new Timeout(2, TimeUnit.SECONDS).scale(1.5);
+
+        assertEquals("3s", scaled.toString());
+        assertFalse(scaled.isExpired());
+    }
+}
@@ -0,0 +1,145 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import me.alb_i986.testing.assertions.AssertRetry;
+import me.alb_i986.testing.assertions.Suppliers;
+import me.alb_i986.testing.assertions.retry.RetryConfigBuilder;
+
+import static me.alb_i986.testing.assertions.AssertRetry.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class TimingProfilesTest {
+
+    @Test
+    public void shouldParseProfilesAndScaleTheirTimes() {
+        Properties properties = new Properties();
+        properties.setProperty("assertretry.timeMultiplier", "2.5");
+        properties.setProperty("assertretry.defaultProfile", "ci");
+        properties.setProperty("assertretry.profile.ci.sleep", "200ms");
+        properties.setProperty("assertretry.profile.ci.maxAttempts", "20");
+        properties.setProperty("assertretry.profile.ci.timeout", "1m 30s");
+        properties.setProperty("assertretry.profile.local.maxAttempts", "5");
+
+        TimingProfiles profiles = new TimingProfiles(properties);
+
+        TimingProfiles.Profile ci = profiles.getDefaultProfile();
+        assertEquals("ci", ci.getName());
+        assertEquals(Long.valueOf(500), ci.getSleepMillis());
+        assertEquals(Integer.valueOf(20), ci.getMaxAttempts());
+        assertEquals(Long.valueOf(225000), ci.getTimeoutMillis());
+        assertEquals("timing profile 'ci': sleep 500ms, max attempts 20, timeout 3m 45s", ci.toString());
+
+        TimingProfiles.Profile local = profiles.getProfile("local");
+        assertNull(local.getSleepMillis());
+        assertNull(local.getTimeoutMillis());
+        assertEquals("sleep for 2s 500ms", profiles.getDefaultWaitStrategy().toString());
+    }
+
+    @Test
+    public void withoutAnyPropertiesDefaultValuesShouldApply() {
+        TimingProfiles profiles = new TimingProfiles(new Properties());
+
+        assertNull(profiles.getDefaultProfile());
+        assertSame(RetryConfigBuilder.DefaultValues.WAIT_STRATEGY, profiles.getDefaultWaitStrategy());
+    }
+
+    @Test
+    public void shouldRejectInvalidProperties() {
+        assertInvalid("assertretry.profile.ci.sleep", "soon", "assertretry.profile.ci.sleep=soon: invalid duration");
+        assertInvalid("assertretry.profile.ci.retries", "3", "unknown setting");
+        assertInvalid("assertretry.profile.ci.maxAttempts", "0", "maxAttempts < 1");
+        assertInvalid("assertretry.timeMultiplier", "-1", "must be positive");
+        assertInvalid("assertretry.defaultProfile", "nightly", "unknown timing profile 'nightly'");
+    }
+
+    @Test
+    public void shouldParseDurations() {
+        assertEquals(500, TimeUtils.parseMillis("500ms"));
+        assertEquals(500, TimeUtils.parseMillis("500"));
+        assertEquals(90000, TimeUtils.parseMillis("1m 30s"));
+        assertEquals(TimeUnit.HOURS.toMillis(2) + 1, TimeUtils.parseMillis("2h 1ms"));
+        assertEquals(60001, TimeUtils.parseMillis(TimeUtils.prettyPrint(60001)));
+    }
+
+    @Test
+    public void assertionsShouldReferToAProfileByName() {
+        RetryConfig config = configureRetry("fast").build();
+
+        assertEquals(3, config.getMaxAttempts());
+        assertEquals("sleep for 5ms", config.getWaitStrategy().toString());
+        assertEquals(TimeUnit.SECONDS.toNanos(2), config.getTimeout().getRemainingTimeNanos(), 1e8);
+
+        RetryConfig overridden = configureRetry("fast").maxAttempts(7).build();
+        assertEquals(7, overridden.getMaxAttempts());
+        assertEquals("sleep for 5ms", overridden.getWaitStrategy().toString());
+    }
+
+    @Test
+    public void theWaitStrategyShouldBeConfiguredIfSetExplicitlyOrByAProfile() {
+        assertFalse(configureRetry().build().isWaitStrategyConfigured());
+        assertTrue(configureRetry("fast").build().isWaitStrategyConfigured());
+        assertTrue(configureRetry().sleepBetweenAttempts(1, TimeUnit.SECONDS).build().isWaitStrategyConfigured());
+        assertTrue(configureRetry().waitStrategy(RetryConfigBuilder.DefaultValues.WAIT_STRATEGY).build()
+                .isWaitStrategyConfigured());
+    }
+
+    @Test
+    public void theResolvedValuesShouldBeLoggedForEachAssertion() {
+        final List<String> messages = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                messages.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger logger = Logger.getLogger(AssertRetry.class.getName());
+        Level level = logger.getLevel();
+        logger.setLevel(Level.FINE);
+        logger.addHandler(handler);
+        try {
+            new AssertRetryEngine(configureRetry("fast").build())
+                    .assertThat("", Suppliers.ascendingIntegersStartingFrom(1), is(1));
+        } finally {
+            logger.removeHandler(handler);
+            logger.setLevel(level);
+        }
+
+        assertThat(messages, hasItem("Retry configuration: max attempts 3, wait strategy: sleep for 5ms, timeout: 2s"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownProfileShouldBeRejected() {
+        configureRetry("nightly");
+    }
+
+    private static void assertInvalid(String key, String value, String expectedMessage) {
+        Properties properties = new Properties();
+        properties.setProperty("assertretry.profile.ci.timeout", "1s");
+        properties.setProperty(key, value);
+        try {
+            new TimingProfiles(properties);
+            fail("should have rejected " + key + "=" + value);
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString(expectedMessage));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import me.alb_i986.testing.assertions.Suppliers;
+import me.alb_i986.testing.assertions.retry.RetryConfigBuilder;
+
+import static me.alb_i986.testing.assertions.AssertRetry.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class TraceRecorderTest {
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private final RetryConfigBuilder baseRetryConfig = configureRetry()
+            .maxAttempts(3)
+            .retryOnException(false)
+            .waitStrategy(WaitStrategies.sleep(10, TimeUnit.MILLISECONDS));
+
+    @Test
+    public void shouldRecordEachAttemptOfEachRun() throws Exception {
+        File traceFile = new File(tmp.getRoot(), "trace.bin");
+        AssertRetryEngine retry = new AssertRetryEngine(baseRetryConfig.recordTraceTo(traceFile).build());
+
+        retry.assertThat(Suppliers.ascendingIntegersStartingFrom(1), eventually(is(3)));
+        try {
+            retry.assertThat(Suppliers.ascendingIntegersStartingFrom(1), eventually(is(10)));
+            fail("assertion error expected");
+        } catch (RetryAssertionError expected) {
+        }
+
+        List<TraceReader.Run> runs = TraceReader.read(traceFile);
+        assertThat(runs, hasSize(2));
+
+        List<TraceReader.Attempt> passingRun = runs.get(0).getAttempts();
+        assertThat(passingRun, hasSize(3));
+        assertThat(passingRun.get(0).getValueRendering(), is("<1>"));
+        assertThat(passingRun.get(0).isMatch(), is(false));
+        assertThat(passingRun.get(2).getValueRendering(), is("<3>"));
+        assertThat(runs.get(0).getPassingAttempt(), is(passingRun.get(2)));
+        assertThat(passingRun.get(2).getElapsedNanos(), greaterThan(passingRun.get(0).getElapsedNanos()));
+
+        assertThat(runs.get(1).getAttempts(), hasSize(3));
+        assertThat(runs.get(1).getPassingAttempt(), is(nullValue()));
+
+        assertThat(TraceReader.summarize(runs), startsWith("Runs: 2 (passed: 1, failed: 1), attempts: 6"));
+    }
+
+    @Test
+    public void replayShouldSimulateTheGivenConfiguration() throws Exception {
+        File traceFile = new File(tmp.getRoot(), "trace.bin");
+        AssertRetryEngine retry = new AssertRetryEngine(baseRetryConfig.recordTraceTo(traceFile).build());
+        retry.assertThat(Suppliers.ascendingIntegersStartingFrom(1), eventually(is(3)));
+
+        List<TraceReader.Run> runs = TraceReader.read(traceFile);
+
+        // attempts close to each other keep seeing the first value
+        assertThat(TraceReader.replay(runs, null, 2, 1, Long.MAX_VALUE).getPassed(), is(0));
+        // the same number of attempts, further apart, eventually see the matching value
+        assertThat(TraceReader.replay(runs, null, 2, 500, Long.MAX_VALUE).getPassed(), is(1));
+        // the timeout stops the attempts before they see the matching value
+        assertThat(TraceReader.replay(runs, null, 100, 5, Long.MAX_VALUE).getPassed(), is(1));
+        assertThat(TraceReader.replay(runs, null, 100, 5, 1).getPassed(), is(0));
+        // a different matcher, checked against the recorded values
+        assertThat(TraceReader.replay(runs, is(1), 1, 1, Long.MAX_VALUE).getPassed(), is(1));
+        assertThat(TraceReader.replay(runs, greaterThan(5), 100, 5, Long.MAX_VALUE).getPassed(), is(0));
+    }
+
+    @Test
+    public void shouldRecordStringsAsIs() throws Exception {
+        File traceFile = new File(tmp.getRoot(), "trace.bin");
+        AssertRetryEngine retry = new AssertRetryEngine(baseRetryConfig.recordTraceTo(traceFile).build());
+        retry.assertThat(Suppliers.fromList(Arrays.asList("RUNNING", "DONE")), is("DONE"));
+
+        List<TraceReader.Run> runs = TraceReader.read(traceFile);
+
+        assertThat(runs.get(0).getAttempts().get(0).getValue(), is((Object) "RUNNING"));
+        assertThat(runs.get(0).getAttempts().get(0).getValueRendering(), is("\"RUNNING\""));
+        assertThat(TraceReader.replay(runs, is("DONE"), 2, 500, Long.MAX_VALUE).getPassed(), is(1));
+    }
+
+    @Test
+    public void longValuesShouldBeTruncatedWithoutSplittingCharacters() throws Exception {
+        File traceFile = new File(tmp.getRoot(), "trace.bin");
+        StringBuilder longValue = new StringBuilder("a");
+        for (int i = 0; i < TraceRecorder.MAX_VALUE_BYTES; i++) {
+            longValue.append('\u00e8'); // 2 bytes in UTF-8
+        }
+        AssertRetryEngine retry = new AssertRetryEngine(baseRetryConfig.maxAttempts(1).recordTraceTo(traceFile).build());
+        retry.assertThat(Suppliers.fromList(Arrays.asList(longValue.toString())), startsWith("a"));
+
+        TraceReader.Attempt attempt = TraceReader.read(traceFile).get(0).getAttempts().get(0);
+
+        assertTrue(attempt.isRenderingOnly());
+        String rendering = attempt.getValueRendering();
+        assertThat(rendering.getBytes("UTF-8").length, lessThanOrEqualTo(TraceRecorder.MAX_VALUE_BYTES));
+        assertThat(rendering, startsWith("\"a\u00e8"));
+        assertThat(rendering, not(containsString("\ufffd")));
+    }
+}
@@ -0,0 +1,140 @@
+package me.alb_i986.testing.assertions.retry.internal;
+
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import me.alb_i986.testing.assertions.retry.Supplier;
+
+import static me.alb_i986.testing.assertions.AssertRetry.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class FlightRecorderListenerTest {
+
+    @Test
+    public void shouldBeRegisteredAutomaticallyOnlyWhileRecording() {
+        assertNull(FlightRecorderSupport.getListener());
+        assertFalse(configureRetry().build().hasListeners());
+
+        try (Recording recording = new Recording()) {
+            recording.enable(FlightRecorderListener.OUTCOME_EVENT);
+            recording.start();
+
+            assertThat(FlightRecorderSupport.getListener(), instanceOf(FlightRecorderListener.class));
+            assertThat(configureRetry().build().getListeners(), hasItem(FlightRecorderSupport.getListener()));
+        }
+        assertNull(FlightRecorderSupport.getListener());
+    }
+
+    @Test
+    public void shouldRecordAttemptsWaitsAndOutcome() throws Exception {
+        Path dump = Files.createTempFile("retry", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(FlightRecorderListener.ATTEMPT_EVENT);
+            recording.enable(FlightRecorderListener.WAIT_EVENT);
+            recording.enable(FlightRecorderListener.OUTCOME_EVENT);
+            recording.start();
+
+            assertThat("counter", counter(), is(2), configureRetry()
+                    .maxAttempts(3)
+                    .waitStrategy(WaitStrategies.sleep(10, TimeUnit.MILLISECONDS)));
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> attempts = new ArrayList<>();
+        List<RecordedEvent> waits = new ArrayList<>();
+        List<RecordedEvent> outcomes = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+            String name = event.getEventType().getName();
+            if (name.equals(FlightRecorderListener.ATTEMPT_EVENT)) {
+                attempts.add(event);
+            } else if (name.equals(FlightRecorderListener.WAIT_EVENT)) {
+                waits.add(event);
+            } else if (name.equals(FlightRecorderListener.OUTCOME_EVENT)) {
+                outcomes.add(event);
+            }
+        }
+        Files.delete(dump);
+
+        assertEquals(2, attempts.size());
+        assertEquals("MISMATCH", attempts.get(0).getString("outcome"));
+        assertEquals("1", attempts.get(0).getString("actualValue"));
+        assertEquals("MATCH", attempts.get(1).getString("outcome"));
+        assertEquals(2, attempts.get(1).getInt("attempt"));
+        assertThat(attempts.get(1).getString("assertion"), is("counter: is <2>"));
+
+        assertEquals(1, waits.size());
+        assertThat(waits.get(0).getDuration().toMillis(), greaterThanOrEqualTo(10L));
+
+        assertEquals(1, outcomes.size());
+        assertTrue(outcomes.get(0).getBoolean("passed"));
+        assertEquals(2, outcomes.get(0).getInt("attempts"));
+    }
+
+    @Test
+    public void shouldRecordTheOutcomeOfARunWhoseMatcherThrows() throws Exception {
+        Path dump = Files.createTempFile("retry", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(FlightRecorderListener.OUTCOME_EVENT);
+            recording.start();
+            FlightRecorderListener listener = (FlightRecorderListener) FlightRecorderSupport.getListener();
+
+            try {
+                assertThat("throwing", counter(), new BaseMatcher<Integer>() {
+                    @Override
+                    public boolean matches(Object item) {
+                        throw new IllegalStateException("matcher failure");
+                    }
+
+                    @Override
+                    public void describeTo(Description description) {
+                        description.appendText("a throwing matcher");
+                    }
+                }, configureRetry().maxAttempts(3));
+                fail("exception expected");
+            } catch (IllegalStateException expected) {
+                // the run ended through an exception
+            }
+            assertEquals(0, listener.runsInProgress());
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> outcomes = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+            if (event.getEventType().getName().equals(FlightRecorderListener.OUTCOME_EVENT)) {
+                outcomes.add(event);
+            }
+        }
+        Files.delete(dump);
+
+        assertEquals(1, outcomes.size());
+        assertFalse(outcomes.get(0).getBoolean("passed"));
+        assertThat(outcomes.get(0).getString("assertion"), is("throwing: a throwing matcher"));
+    }
+
+    private static Supplier<Integer> counter() {
+        return new Supplier<Integer>() {
+            private int i;
+
+            @Override
+            public Integer get() {
+                return ++i;
+            }
+        };
+    }
+}